@@ -0,0 +1,211 @@
+package com.app.emsx.catalog;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.events.ProductChangedEvent;
+import com.app.emsx.events.ProductsImportedEvent;
+import com.app.emsx.events.StockChangedEvent;
+import com.app.emsx.mappers.ProductMapper;
+import com.app.emsx.repositories.ProductRepository;
+import com.app.emsx.workload.WorkloadContext;
+import com.app.emsx.workload.WorkloadType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CatalogSnapshot
+ * -----------------------------------------------------
+ * ✔ Catálogo completo (mismo cuerpo que GET /api/products) serializado una sola vez
+ * ✔ Guardado en memoria en tres variantes: sin comprimir, gzip y brotli
+ *   (brotli se agrega en una segunda fase: es la variante más lenta de construir)
+ * ✔ Se reconstruye en segundo plano tras cambios de producto o stock, con debounce:
+ *   una ráfaga de cambios produce una sola reconstrucción
+ * ✔ Servir una petición cuesta copiar un byte[] (sin consulta, mapeo ni serialización)
+ */
+@Slf4j
+@Component
+public class CatalogSnapshot {
+
+    private static final int BROTLI_WINDOW = 24;
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long debounceMillis;
+    private final int brotliQuality;
+    private final boolean brotliAvailable;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final Object initialBuildLock = new Object();
+    private volatile Snapshot current;
+
+    public CatalogSnapshot(ProductRepository productRepository,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${emsx.catalog.snapshot-debounce-ms:500}") long debounceMillis,
+                           @Value("${emsx.catalog.snapshot-brotli-quality:9}") int brotliQuality) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.debounceMillis = debounceMillis;
+        this.brotliQuality = brotliQuality;
+        this.brotliAvailable = Brotli4jLoader.isAvailable();
+        if (!brotliAvailable) {
+            log.warn("Brotli no disponible en esta plataforma; el snapshot del catálogo solo se servirá con gzip",
+                    Brotli4jLoader.getUnavailabilityCause());
+        }
+    }
+
+    /**
+     * ✅ Variante sin comprimir, gzip y (si la plataforma lo permite) brotli del mismo cuerpo
+     */
+    public record Snapshot(byte[] identity, byte[] gzip, byte[] brotli, String eTag, Instant builtAt) {
+
+        Snapshot withBrotli(byte[] compressed) {
+            return new Snapshot(identity, gzip, compressed, eTag, builtAt);
+        }
+    }
+
+    /**
+     * ✅ Snapshot vigente; si aún no existe ninguno (arranque) se construye en línea sin brotli
+     */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            // Lock propio: no espera la fase brotli de una reconstrucción en curso
+            synchronized (initialBuildLock) {
+                if (current == null) {
+                    current = buildBase();
+                    scheduleRebuild();
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Si ya hay una reconstrucción programada, el cambio queda cubierto por ella.
+     * El flag se libera antes de leer la base de datos, así los cambios que llegan
+     * durante la reconstrucción programan la siguiente.
+     */
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("No se pudo reconstruir el snapshot del catálogo", ex);
+                }
+            }, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void rebuild() {
+        Snapshot base = buildBase();
+        current = base;
+        if (brotliAvailable) {
+            try {
+                byte[] brotli = Encoder.compress(base.identity(),
+                        new Encoder.Parameters().setQuality(brotliQuality).setWindow(BROTLI_WINDOW));
+                current = base.withBrotli(brotli);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private Snapshot buildBase() {
+        List<ProductResponse> catalog = WorkloadContext.call(WorkloadType.BULK, () ->
+                readOnlyTransaction.execute(status -> productRepository.findAllWithStock().stream()
+                        .map(ProductMapper::toResponse)
+                        .toList()));
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(
+                    ApiResponse.ok("Products retrieved successfully", catalog));
+            log.debug("Snapshot del catálogo reconstruido: {} productos, {} bytes", catalog.size(), identity.length);
+            return new Snapshot(identity, gzip(identity), null, digest(identity), Instant.now());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return "catalog-snapshot-" + HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.app.emsx.common;
+
+import com.app.emsx.common.WireFormats.WireFormat;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.replica.SessionLsn;
+import com.app.emsx.sql.SqlRecorder;
+import com.app.emsx.workload.BulkWorkExecutor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * ApiResponseStreamer
+ * -----------------------------------------------------
+ * ✔ Escribe listas con el mismo sobre que ApiResponse (success, message, data, timestamp)
+ * ✔ Cada elemento se serializa con JsonGenerator apenas sale del cursor de la consulta:
+ *   la memoria por petición no depende del tamaño de la respuesta
+ * ✔ El formato (JSON, CBOR o Smile) se negocia con el header Accept de la petición en curso,
+ *   y los campos de cada elemento se recortan según su FieldSet (?fields=)
+ * ✔ El Stream se consume dentro de una transacción de solo lectura propia,
+ *   porque el cuerpo se escribe fuera del hilo del controlador (en BulkWorkExecutor;
+ *   con su cola llena la petición recibe 503 antes de empezar)
+ */
+@Component
+public class ApiResponseStreamer {
+
+    private final WireFormats wireFormats;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BulkWorkExecutor bulkWorkExecutor;
+
+    public ApiResponseStreamer(WireFormats wireFormats, PlatformTransactionManager transactionManager,
+                               BulkWorkExecutor bulkWorkExecutor) {
+        this.wireFormats = wireFormats;
+        this.bulkWorkExecutor = bulkWorkExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * ✅ Completa la respuesta con el Content-Type negociado y el cuerpo en streaming
+     */
+    public <T> ResponseEntity<StreamingResponseBody> list(ResponseEntity.BodyBuilder response,
+                                                          String message, Supplier<Stream<T>> items) {
+        bulkWorkExecutor.admit();
+        String accept = null;
+        FieldSet fields = FieldSet.all();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            accept = attributes.getRequest().getHeader(HttpHeaders.ACCEPT);
+            if (attributes.getRequest().getAttribute(FieldSet.REQUEST_ATTRIBUTE) instanceof FieldSet requested) {
+                fields = requested;
+            }
+        }
+        WireFormat format = wireFormats.negotiate(accept);
+        // Sin flush por elemento: el generador y el buffer del servidor deciden cuándo enviar
+        ObjectWriter writer = format.objectMapper().writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .with(fields.filters());
+        // El cuerpo corre en otro hilo: lleva consigo el X-Session-LSN y el SqlRecorder de la petición
+        Long sessionLsn = SessionLsn.current();
+        SqlRecorder sqlRecorder = SqlRecorder.current();
+        StreamingResponseBody body = out -> SessionLsn.call(sessionLsn, () -> SqlRecorder.call(sqlRecorder, () ->
+                readOnlyTransaction.execute(status -> {
+                    write(out, format, writer, message, items);
+                    return null;
+                })));
+        return response.contentType(format.mediaType()).body(body);
+    }
+
+    private <T> void write(OutputStream out, WireFormat format, ObjectWriter writer,
+                           String message, Supplier<Stream<T>> items) {
+        try (JsonGenerator generator = format.objectMapper().getFactory().createGenerator(out);
+             Stream<T> stream = items.get()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", message);
+            generator.writeArrayFieldStart("data");
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+            }
+            generator.writeEndArray();
+            generator.writeFieldName("timestamp");
+            writer.writeValue(generator, LocalDateTime.now());
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.emsx.common;
+
+import com.app.emsx.dtos.batch.BatchItemResponse;
+import com.app.emsx.exceptions.BadRequestException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * BatchLookup
+ * -----------------------------------------------------
+ * ✔ Lecturas por lotes (?ids=1,2,3 / track/batch): una sola consulta IN
+ *   en lugar de un GET por recurso
+ * ✔ Acota el tamaño del lote (MAX_KEYS) y descarta duplicados antes de consultar
+ * ✔ Devuelve una entrada por clave pedida, en el orden del pedido,
+ *   con found = false para las que no existen
+ */
+public final class BatchLookup {
+
+    public static final int MAX_KEYS = 200;
+
+    private BatchLookup() {
+    }
+
+    /**
+     * ✅ Claves distintas a consultar; 400 si el lote está vacío, excede MAX_KEYS o trae nulos
+     */
+    public static <K> Set<K> distinctKeys(List<K> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new BadRequestException("Debe indicar al menos una clave");
+        }
+        if (keys.size() > MAX_KEYS) {
+            throw new BadRequestException("Máximo " + MAX_KEYS + " claves por petición (recibidas: " + keys.size() + ")");
+        }
+        if (keys.contains(null)) {
+            throw new BadRequestException("Las claves no pueden ser nulas");
+        }
+        return new LinkedHashSet<>(keys);
+    }
+
+    /**
+     * ✅ Reordena lo encontrado según las claves pedidas (duplicados incluidos)
+     */
+    public static <K, T> List<BatchItemResponse<K, T>> inRequestOrder(
+            List<K> keys, Collection<T> found, Function<T, K> keyOf) {
+        Map<K, T> byKey = found.stream().collect(Collectors.toMap(keyOf, Function.identity()));
+        return keys.stream()
+                .map(key -> {
+                    T data = byKey.get(key);
+                    return BatchItemResponse.<K, T>builder()
+                            .key(key)
+                            .found(data != null)
+                            .data(data)
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * ✅ Atajo: valida, consulta una vez con las claves distintas y reordena
+     */
+    public static <K, T> List<BatchItemResponse<K, T>> lookup(
+            List<K> keys, Function<Set<K>, Collection<T>> query, Function<T, K> keyOf) {
+        Set<K> distinct = distinctKeys(keys);
+        return inRequestOrder(keys, Objects.requireNonNull(query.apply(distinct)), keyOf);
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.emsx.common;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * ETags
+ * -----------------------------------------------------
+ * ✔ Construye ETag fuertes a partir de versiones / contadores de cambio
+ * ✔ Se calculan con consultas de proyección, sin cargar ni serializar entidades
+ * ✔ Los valores nulos (relación ausente) se representan como "n"
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(String resource, Object... parts) {
+        return Arrays.stream(parts)
+                .map(part -> part == null ? "n" : part.toString())
+                .collect(Collectors.joining("-", resource + "-", ""));
+    }
+}
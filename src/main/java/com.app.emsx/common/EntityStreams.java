@@ -0,0 +1,64 @@
+package com.app.emsx.common;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * EntityStreams
+ * -----------------------------------------------------
+ * ✔ Mapea entidades de un Stream de consulta a DTOs
+ * ✔ Desasocia cada entidad del contexto de persistencia una vez mapeada,
+ *   para que recorrer millones de filas no acumule entidades gestionadas
+ * ✔ El recorrido no escribe en la caché L2 (la sesión es propia del streaming);
+ *   la pista de consulta no sirve aquí porque el cursor se lee después de ejecutar la consulta
+ * ✔ Agrupa un cursor en bloques, para cargar las colecciones de cada bloque con una sola consulta IN
+ */
+public final class EntityStreams {
+
+    private EntityStreams() {
+    }
+
+    public static <E, R> Stream<R> mapAndDetach(Stream<E> entities, EntityManager entityManager,
+                                                Function<E, R> mapper) {
+        entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+        return entities.map(entity -> {
+            R response = mapper.apply(entity);
+            entityManager.detach(entity);
+            return response;
+        });
+    }
+
+    /**
+     * ✅ Bloques de hasta size elementos, leídos a medida que se consumen;
+     * cerrar el Stream resultante cierra el de origen
+     */
+    public static <T> Stream<List<T>> chunked(Stream<T> source, int size) {
+        Iterator<T> iterator = source.iterator();
+        Iterator<List<T>> chunks = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                List<T> chunk = new ArrayList<>(size);
+                while (chunk.size() < size && iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                }
+                return chunk;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED), false)
+                .onClose(source::close);
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.emsx.common;
+
+/**
+ * PathRule
+ * -----------------------------------------------------
+ * ✔ Regla de ruta de configuración: exacta ("/api/orders") o prefijo ("/api/orders/**"),
+ *   opcionalmente con método ("GET /api/orders")
+ * ✔ Se evalúa con comparaciones de strings, sin parsear la ruta: va en filtros
+ *   que corren en cada petición
+ */
+public record PathRule(String method, String path, boolean prefix) {
+
+    /**
+     * ✅ "[MÉTODO ]ruta[/**]"; solo admite ese comodín final
+     */
+    public static PathRule parse(String rule) {
+        String trimmed = rule.trim();
+        int space = trimmed.indexOf(' ');
+        String method = space > 0 ? trimmed.substring(0, space).toUpperCase() : null;
+        String path = space > 0 ? trimmed.substring(space + 1).trim() : trimmed;
+        boolean prefix = path.endsWith("/**");
+        if (prefix) {
+            path = path.substring(0, path.length() - 3);
+        }
+        if (path.isEmpty() || path.contains("*") || path.contains("{")) {
+            throw new IllegalArgumentException("Regla de ruta inválida (solo rutas exactas o prefijos /**): " + rule);
+        }
+        return new PathRule(method, path, prefix);
+    }
+
+    public boolean matches(String requestMethod, String requestPath) {
+        if (method != null && !method.equals(requestMethod)) {
+            return false;
+        }
+        if (!prefix) {
+            return requestPath.equals(path);
+        }
+        return requestPath.startsWith(path)
+                && (requestPath.length() == path.length() || requestPath.charAt(path.length()) == '/');
+    }
+}
@@ -0,0 +1,99 @@
+package com.app.emsx.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * WireFormats
+ * -----------------------------------------------------
+ * ✔ Formatos de respuesta soportados: JSON (por defecto), CBOR y Smile
+ * ✔ Los mappers binarios salen del mismo Jackson2ObjectMapperBuilder que Spring Boot usa
+ *   para JSON: mismos módulos y features, así los DTO tienen la misma forma en todos los formatos
+ * ✔ Negocia el formato a partir del header Accept (JSON si nada coincide)
+ * ✔ Cada formato es una representación distinta: los ETag binarios llevan sufijo propio
+ */
+@Component
+public class WireFormats {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    /**
+     * ✅ Formato de serialización: nombre (sufijo de ETag), media type y ObjectMapper configurado para él
+     */
+    public record WireFormat(String name, MediaType mediaType, ObjectMapper objectMapper) {
+    }
+
+    private final WireFormat json;
+    private final WireFormat cbor;
+    private final WireFormat smile;
+    private final List<WireFormat> formats;
+
+    public WireFormats(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        // El builder de Boot es prototype: cada getObject() devuelve uno nuevo con la misma configuración
+        this.json = new WireFormat("json", MediaType.APPLICATION_JSON, objectMapper);
+        this.cbor = new WireFormat("cbor", MediaType.APPLICATION_CBOR,
+                builders.getObject().factory(new CBORFactory()).build());
+        this.smile = new WireFormat("smile", APPLICATION_SMILE,
+                builders.getObject().factory(new SmileFactory()).build());
+        // JSON primero: es el que recibe "Accept: */*"
+        this.formats = List.of(json, cbor, smile);
+    }
+
+    public WireFormat json() {
+        return json;
+    }
+
+    public WireFormat cbor() {
+        return cbor;
+    }
+
+    public WireFormat smile() {
+        return smile;
+    }
+
+    /**
+     * ✅ ETag de la representación negociada (JSON conserva el ETag sin sufijo)
+     */
+    public String eTag(String eTag, WebRequest request) {
+        WireFormat format = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        return format == json ? eTag : eTag + "-" + format.name();
+    }
+
+    /**
+     * ✅ Primer formato aceptado según calidad / especificidad del header Accept
+     */
+    public WireFormat negotiate(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return json;
+        }
+        List<MediaType> requested;
+        try {
+            requested = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException ex) {
+            return json;
+        }
+        MimeTypeUtils.sortBySpecificity(requested);
+        for (MediaType mediaType : requested) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (WireFormat format : formats) {
+                if (mediaType.isCompatibleWith(format.mediaType())) {
+                    return format;
+                }
+            }
+        }
+        return json;
+    }
+}
@@ -2,6 +2,7 @@ package com.app.emsx.security;
 
 import com.app.emsx.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,7 +10,6 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
@@ -24,6 +24,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class ApplicationConfig {
 
     private final UserRepository userRepository;
+    private final UserPasswordUpgrader passwordUpgrader;
+
+    @Value("${emsx.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
 
     /**
      * ✅ Carga de usuario personalizada
@@ -42,15 +46,17 @@ public class ApplicationConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-hashea al vuelo los hashes con un work factor distinto del configurado
+        authProvider.setUserDetailsPasswordService(passwordUpgrader);
         return authProvider;
     }
 
     /**
-     * ✅ Codificador de contraseñas (BCrypt)
+     * ✅ Codificador de contraseñas (BCrypt, costo emsx.auth.bcrypt-strength)
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new RehashingBCryptPasswordEncoder(bcryptStrength);
     }
 
     /**
@@ -0,0 +1,26 @@
+package com.app.emsx.config;
+
+import com.app.emsx.workload.BulkWorkExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * AsyncStreamingConfig
+ * -----------------------------------------------------
+ * ✔ Las respuestas asíncronas de MVC (listas en streaming) corren en los hilos
+ *   de BulkWorkExecutor, no en el executor genérico de la aplicación
+ * ✔ El timeout sigue siendo spring.mvc.async.request-timeout
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncStreamingConfig implements WebMvcConfigurer {
+
+    private final BulkWorkExecutor bulkWorkExecutor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(bulkWorkExecutor.taskExecutor());
+    }
+}
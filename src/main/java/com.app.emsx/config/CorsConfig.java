@@ -1,5 +1,6 @@
 package com.app.emsx.config;
 
+import com.app.emsx.replica.SessionLsn;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
@@ -30,7 +31,10 @@ public class CorsConfig {
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 
         // ✅ Headers permitidos
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", SessionLsn.HEADER));
+
+        // ✅ Headers legibles por el frontend (read-your-writes con réplicas)
+        config.setExposedHeaders(List.of(SessionLsn.HEADER));
 
         // ✅ Permitir credenciales (si usás cookies o headers con token)
         config.setAllowCredentials(true);
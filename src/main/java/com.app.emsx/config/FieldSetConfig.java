@@ -0,0 +1,32 @@
+package com.app.emsx.config;
+
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.fields.FieldSetArgumentResolver;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * FieldSetConfig
+ * -----------------------------------------------------
+ * ✔ Registra el resolver de los parámetros @SparseFields FieldSet
+ * ✔ Da a todos los ObjectMapper de Boot (JSON, CBOR, Smile) el filtro por defecto
+ *   que necesitan los DTO anotados con @JsonFilter
+ */
+@Configuration
+public class FieldSetConfig implements WebMvcConfigurer {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSetFilterCustomizer() {
+        return builder -> builder.filters(FieldSet.defaultFilters());
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new FieldSetArgumentResolver());
+    }
+}
@@ -0,0 +1,89 @@
+package com.app.emsx.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HibernateCacheConfig
+ * -----------------------------------------------------
+ * ✔ Caché de segundo nivel de Hibernate sobre JCache (Caffeine)
+ * ✔ Una región por entidad de referencia (productos, stock, clientes, usuarios)
+ * ✔ Regiones de natural-id para User.email y Product.sku
+ * ✔ La región de timestamps nunca expira (requisito de la caché de consultas)
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_SKU = "products-by-sku";
+    public static final String STOCKS = "stocks";
+    public static final String CUSTOMERS = "customers";
+    public static final String USERS = "users";
+    public static final String USERS_BY_EMAIL = "users-by-email";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Value("${emsx.cache.entity-max-size:10000}")
+    private long entityMaxSize;
+
+    @Value("${emsx.cache.entity-ttl-minutes:30}")
+    private long entityTtlMinutes;
+
+    @Value("${emsx.cache.stock-ttl-minutes:5}")
+    private long stockTtlMinutes;
+
+    /**
+     * ✅ CacheManager JCache con las regiones preconfiguradas
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        Duration entityTtl = Duration.ofMinutes(entityTtlMinutes);
+        createRegion(cacheManager, PRODUCTS, entityMaxSize, entityTtl);
+        createRegion(cacheManager, PRODUCTS_BY_SKU, entityMaxSize, entityTtl);
+        createRegion(cacheManager, STOCKS, entityMaxSize, Duration.ofMinutes(stockTtlMinutes));
+        createRegion(cacheManager, CUSTOMERS, entityMaxSize, entityTtl);
+        createRegion(cacheManager, USERS, entityMaxSize, entityTtl);
+        createRegion(cacheManager, USERS_BY_EMAIL, entityMaxSize, entityTtl);
+        createRegion(cacheManager, QUERY_RESULTS, entityMaxSize, Duration.ofMinutes(stockTtlMinutes));
+        createRegion(cacheManager, UPDATE_TIMESTAMPS, Long.MAX_VALUE, null);
+        return cacheManager;
+    }
+
+    /**
+     * ✅ Entrega el CacheManager a Hibernate en lugar de dejar que cree el suyo
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, String name, long maxSize, Duration ttl) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize != Long.MAX_VALUE) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttl.toMillis())));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -1,8 +1,10 @@
 package com.app.emsx.config;
 
+import com.app.emsx.fields.FieldSet;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.*;
 import io.swagger.v3.oas.models.security.*;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,10 +17,15 @@ import java.util.List;
  * ✔ Añade soporte para autenticación JWT tipo Bearer
  * ✔ Permite probar /api/auth/login y /api/auth/register directamente
  * ✔ URL de acceso: http://localhost:8080/swagger-ui/index.html
+ * ✔ Los parámetros FieldSet se documentan como el string ?fields= del que se resuelven
  */
 @Configuration
 public class SwaggerConfig {
 
+    static {
+        SpringDocUtils.getConfig().replaceWithClass(FieldSet.class, String.class);
+    }
+
     @Bean
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
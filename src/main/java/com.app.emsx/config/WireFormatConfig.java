@@ -0,0 +1,46 @@
+package com.app.emsx.config;
+
+import com.app.emsx.common.WireFormats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * WireFormatConfig
+ * -----------------------------------------------------
+ * ✔ Registra los converters CBOR y Smile con los mappers de WireFormats
+ * ✔ Spring MVC ya agrega converters por defecto para ambos formatos, pero con un
+ *   ObjectMapper que no lleva la configuración de Boot (fechas como arreglos, etc.):
+ *   se reemplazan en su misma posición, detrás del converter JSON
+ * ✔ Aplica a todos los controladores y al manejador global de errores, en lectura y escritura
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final WireFormats wireFormats;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replaceOrAppend(converters, MappingJackson2CborHttpMessageConverter.class,
+                new MappingJackson2CborHttpMessageConverter(wireFormats.cbor().objectMapper()));
+        replaceOrAppend(converters, MappingJackson2SmileHttpMessageConverter.class,
+                new MappingJackson2SmileHttpMessageConverter(wireFormats.smile().objectMapper()));
+    }
+
+    private static void replaceOrAppend(List<HttpMessageConverter<?>> converters,
+                                        Class<?> type, HttpMessageConverter<?> converter) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) {
+                converters.set(i, converter);
+                return;
+            }
+        }
+        converters.add(converter);
+    }
+}
@@ -0,0 +1,138 @@
+package com.app.emsx.config;
+
+import com.app.emsx.overload.PoolWaitMonitor;
+import com.app.emsx.replica.ReadReplicas;
+import com.app.emsx.replica.ReplicaCacheGuard;
+import com.app.emsx.replica.ReplicaProperties;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadInterceptor;
+import com.app.emsx.workload.WorkloadProperties;
+import com.app.emsx.workload.WorkloadRoutingDataSource;
+import com.app.emsx.workload.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WorkloadDataSourceConfig
+ * -----------------------------------------------------
+ * ✔ Un pool de Hikari por workload (OLTP, INTERACTIVE, BULK) contra el mismo
+ *   spring.datasource.*; cada sesión arranca con el statement_timeout de su pool
+ * ✔ El DataSource del contexto (JPA, JdbcTemplate, COPY) enruta por WorkloadContext
+ *   y pide la conexión real recién en la primera sentencia
+ * ✔ @Workload se aplica por fuera de @Transactional (máxima precedencia)
+ * ✔ Cada réplica de emsx.replicas.urls tiene sus propios pools INTERACTIVE y BULK
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource oltpDataSource(DataSourceProperties dataSourceProperties, WorkloadProperties properties) {
+        return pool(WorkloadType.OLTP, dataSourceProperties, properties);
+    }
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource interactiveDataSource(DataSourceProperties dataSourceProperties,
+                                                  WorkloadProperties properties) {
+        return pool(WorkloadType.INTERACTIVE, dataSourceProperties, properties);
+    }
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource bulkDataSource(DataSourceProperties dataSourceProperties, WorkloadProperties properties) {
+        return pool(WorkloadType.BULK, dataSourceProperties, properties);
+    }
+
+    @Bean
+    public ReadReplicas readReplicas(DataSourceProperties dataSourceProperties,
+                                     WorkloadProperties properties,
+                                     ReplicaProperties replicaProperties,
+                                     PoolWaitMonitor poolWaitMonitor,
+                                     ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        List<ReadReplicas.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+            String name = "replica" + (i + 1);
+            Map<WorkloadType, HikariDataSource> pools = new EnumMap<>(WorkloadType.class);
+            for (WorkloadType type : List.of(WorkloadType.INTERACTIVE, WorkloadType.BULK)) {
+                HikariDataSource pool = pool("emsx-" + name + "-" + type.name().toLowerCase(),
+                        replicaProperties.getUrls().get(i), dataSourceProperties, properties.pool(type));
+                // Una réplica caída no impide arrancar ni retiene peticiones: sale de la rotación
+                pool.setConnectionTimeout(replicaProperties.getConnectionTimeoutMs());
+                pool.setInitializationFailTimeout(-1);
+                poolWaitMonitor.attach(pool);
+                pools.put(type, pool);
+            }
+            replicas.add(new ReadReplicas.Replica(name, pools));
+        }
+        return new ReadReplicas(replicas, oltpDataSource(dataSourceProperties, properties), replicaProperties,
+                new ReplicaCacheGuard(entityManagerFactory));
+    }
+
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                               WorkloadProperties properties,
+                                                               ReadReplicas readReplicas) {
+        return new WorkloadRoutingDataSource(Map.of(
+                WorkloadType.OLTP, oltpDataSource(dataSourceProperties, properties),
+                WorkloadType.INTERACTIVE, interactiveDataSource(dataSourceProperties, properties),
+                WorkloadType.BULK, bulkDataSource(dataSourceProperties, properties)), readReplicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadRoutingDataSource workloadRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(workloadRoutingDataSource);
+        // Valores por defecto de Postgres: así el proxy no abre una conexión al arrancar para averiguarlos
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor workloadAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Workload.class, true))
+                .union(new AnnotationMatchingPointcut(null, Workload.class, true));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new WorkloadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static HikariDataSource pool(WorkloadType type, DataSourceProperties dataSourceProperties,
+                                         WorkloadProperties properties) {
+        return pool("emsx-" + type.name().toLowerCase(), dataSourceProperties.determineUrl(),
+                dataSourceProperties, properties.pool(type));
+    }
+
+    private static HikariDataSource pool(String poolName, String url, DataSourceProperties dataSourceProperties,
+                                         WorkloadProperties.Pool pool) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setMinimumIdle(pool.getMinimumIdle());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeoutMs());
+        dataSource.setConnectionInitSql("SET statement_timeout = " + pool.getStatementTimeoutMs());
+        return dataSource;
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.cache.CacheRegionStatsResponse;
+import com.app.emsx.services.CacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheService cacheService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<List<CacheRegionStatsResponse>>> getRegionStats() {
+        List<CacheRegionStatsResponse> responses = cacheService.getRegionStats();
+        return ResponseEntity.ok(ApiResponse.ok("Cache statistics retrieved successfully", responses));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> evictAll() {
+        cacheService.evictAll();
+        return ResponseEntity.ok(ApiResponse.ok("Cache evicted successfully", null));
+    }
+}
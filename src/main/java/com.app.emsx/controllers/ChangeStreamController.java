@@ -0,0 +1,33 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.sync.ChangeStreamFilter;
+import com.app.emsx.sync.ChangeStreamHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+public class ChangeStreamController {
+
+    private final ChangeStreamHub changeStreamHub;
+
+    /**
+     * Cambios en vivo (eventos order, shipment y stock) de las entidades filtradas;
+     * reemplaza el polling de /api/orders/{id}, /api/shipments/track/... y /api/products/{id}/stock
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestParam(required = false) List<Long> orderIds,
+                              @RequestParam(required = false) Long customerId,
+                              @RequestParam(required = false) List<String> trackingCodes,
+                              @RequestParam(required = false) List<Long> productIds) {
+        return changeStreamHub.subscribe(ChangeStreamFilter.of(orderIds, customerId, trackingCodes, productIds));
+    }
+}
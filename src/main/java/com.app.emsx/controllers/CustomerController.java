@@ -1,15 +1,20 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.ApiResponseStreamer;
+import com.app.emsx.dtos.batch.BatchItemResponse;
 import com.app.emsx.dtos.customer.CustomerRequest;
 import com.app.emsx.dtos.customer.CustomerResponse;
 import com.app.emsx.dtos.order.OrderResponse;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.fields.SparseFields;
 import com.app.emsx.services.CustomerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,6 +24,7 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final ApiResponseStreamer apiResponseStreamer;
 
     @PostMapping
     public ResponseEntity<ApiResponse<CustomerResponse>> create(@Valid @RequestBody CustomerRequest request) {
@@ -28,14 +34,27 @@ public class CustomerController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<CustomerResponse>> getById(@PathVariable Long id) {
-        CustomerResponse response = customerService.getById(id);
+    public ResponseEntity<ApiResponse<CustomerResponse>> getById(
+            @PathVariable Long id,
+            @SparseFields(CustomerResponse.class) FieldSet fields) {
+        CustomerResponse response = customerService.getById(id, fields);
         return ResponseEntity.ok(ApiResponse.ok("Customer retrieved successfully", response));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CustomerResponse>>> getAll() {
-        List<CustomerResponse> responses = customerService.getAll();
+    public ResponseEntity<StreamingResponseBody> getAll(@SparseFields(CustomerResponse.class) FieldSet fields) {
+        return apiResponseStreamer.list(ResponseEntity.ok(),
+                "Customers retrieved successfully", () -> customerService.streamAll(fields));
+    }
+
+    /**
+     * Lectura por lotes: ?ids=1,2,3 (máx. BatchLookup.MAX_KEYS), en el orden pedido y con found=false si no existe
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<BatchItemResponse<Long, CustomerResponse>>>> getByIds(
+            @RequestParam List<Long> ids,
+            @SparseFields(CustomerResponse.class) FieldSet fields) {
+        List<BatchItemResponse<Long, CustomerResponse>> responses = customerService.getByIds(ids, fields);
         return ResponseEntity.ok(ApiResponse.ok("Customers retrieved successfully", responses));
     }
 
@@ -1,15 +1,25 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.ApiResponseStreamer;
+import com.app.emsx.common.WireFormats;
+import com.app.emsx.dtos.batch.BatchItemResponse;
 import com.app.emsx.dtos.order.OrderItemRequest;
 import com.app.emsx.dtos.order.OrderRequest;
 import com.app.emsx.dtos.order.OrderResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.fields.SparseFields;
 import com.app.emsx.services.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,6 +29,8 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ApiResponseStreamer apiResponseStreamer;
+    private final WireFormats wireFormats;
 
     @PostMapping
     public ResponseEntity<ApiResponse<OrderResponse>> create(@Valid @RequestBody OrderRequest request) {
@@ -28,17 +40,51 @@ public class OrderController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<OrderResponse>> getById(@PathVariable Long id) {
-        OrderResponse response = orderService.getById(id);
-        return ResponseEntity.ok(ApiResponse.ok("Order retrieved successfully", response));
+    public ResponseEntity<ApiResponse<OrderResponse>> getById(
+            @PathVariable Long id,
+            @SparseFields(OrderResponse.class) FieldSet fields,
+            WebRequest webRequest) {
+        String eTag = wireFormats.eTag(orderService.getETag(id), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        OrderResponse response = orderService.getById(id, fields);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.ok("Order retrieved successfully", response));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getAll() {
-        List<OrderResponse> responses = orderService.getAll();
+    public ResponseEntity<StreamingResponseBody> getAll(@SparseFields(OrderResponse.class) FieldSet fields) {
+        return apiResponseStreamer.list(ResponseEntity.ok(),
+                "Orders retrieved successfully", () -> orderService.streamAll(fields));
+    }
+
+    /**
+     * Lectura por lotes: ?ids=1,2,3 (máx. BatchLookup.MAX_KEYS), en el orden pedido y con found=false si no existe
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<BatchItemResponse<Long, OrderResponse>>>> getByIds(
+            @RequestParam List<Long> ids,
+            @SparseFields(OrderResponse.class) FieldSet fields) {
+        List<BatchItemResponse<Long, OrderResponse>> responses = orderService.getByIds(ids, fields);
         return ResponseEntity.ok(ApiResponse.ok("Orders retrieved successfully", responses));
     }
 
+    /**
+     * Órdenes creadas, modificadas o eliminadas desde since (incluye cambios de su envío)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangesResponse<OrderResponse>>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            @SparseFields(OrderResponse.class) FieldSet fields) {
+        ChangesResponse<OrderResponse> response = orderService.getChanges(since, limit, fields);
+        return ResponseEntity.ok(ApiResponse.ok("Order changes retrieved successfully", response));
+    }
+
     @PostMapping("/{id}/items")
     public ResponseEntity<ApiResponse<OrderResponse>> addOrderItems(
             @PathVariable Long id,
@@ -1,16 +1,34 @@
 package com.app.emsx.controllers;
 
+import com.app.emsx.catalog.CatalogSnapshot;
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.ApiResponseStreamer;
+import com.app.emsx.common.WireFormats;
+import com.app.emsx.dtos.batch.BatchItemResponse;
+import com.app.emsx.dtos.product.ProductFacetRequest;
+import com.app.emsx.dtos.product.ProductFacetResponse;
+import com.app.emsx.dtos.product.ProductImportResponse;
 import com.app.emsx.dtos.product.ProductRequest;
 import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.dtos.product.ProductSearchResponse;
 import com.app.emsx.dtos.stock.StockResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.fields.SparseFields;
+import com.app.emsx.services.ProductImportService;
 import com.app.emsx.services.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,6 +37,9 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ApiResponseStreamer apiResponseStreamer;
+    private final WireFormats wireFormats;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ProductResponse>> create(@Valid @RequestBody ProductRequest request) {
@@ -27,28 +48,126 @@ public class ProductController {
                 .body(ApiResponse.ok("Product created successfully", response));
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<ProductImportResponse>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        ProductImportService.Format format = contentType.startsWith("text/csv")
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        ProductImportResponse response = productImportService.importProducts(body, format);
+        return ResponseEntity.ok(ApiResponse.ok("Products imported successfully", response));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductResponse>> getById(@PathVariable Long id) {
-        ProductResponse response = productService.getById(id);
-        return ResponseEntity.ok(ApiResponse.ok("Product retrieved successfully", response));
+    public ResponseEntity<ApiResponse<ProductResponse>> getById(
+            @PathVariable Long id,
+            @SparseFields(ProductResponse.class) FieldSet fields,
+            WebRequest webRequest) {
+        // If-None-Match se resuelve con la versión antes de cargar el producto
+        String eTag = wireFormats.eTag(productService.getETag(id), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        ProductResponse response = productService.getById(id, fields);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.ok("Product retrieved successfully", response));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getAll() {
-        List<ProductResponse> responses = productService.getAll();
+    public ResponseEntity<StreamingResponseBody> getAll(
+            @SparseFields(ProductResponse.class) FieldSet fields,
+            WebRequest webRequest) {
+        String eTag = wireFormats.eTag(productService.getCatalogETag(), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        // checkNotModified ya escribió el ETag en la respuesta (el cuerpo en streaming no lo reemplaza)
+        return apiResponseStreamer.list(ResponseEntity.ok()
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .cacheControl(CacheControl.noCache().cachePrivate()),
+                "Products retrieved successfully", () -> productService.streamAll(fields));
+    }
+
+    /**
+     * Lectura por lotes: ?ids=1,2,3 (máx. BatchLookup.MAX_KEYS), en el orden pedido y con found=false si no existe
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<BatchItemResponse<Long, ProductResponse>>>> getByIds(
+            @RequestParam List<Long> ids,
+            @SparseFields(ProductResponse.class) FieldSet fields) {
+        List<BatchItemResponse<Long, ProductResponse>> responses = productService.getByIds(ids, fields);
         return ResponseEntity.ok(ApiResponse.ok("Products retrieved successfully", responses));
     }
 
-    @GetMapping("/category/{category}")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getByCategory(@PathVariable String category) {
-        List<ProductResponse> responses = productService.getByCategory(category);
+    /**
+     * Catálogo completo precomputado y precomprimido (br / gzip según Accept-Encoding)
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> getSnapshot(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogSnapshot.Snapshot snapshot = productService.getCatalogSnapshot();
+        // Un ETag fuerte por codificación: cada variante es una representación distinta
+        if (snapshot.brotli() != null && accepts(acceptEncoding, "br")) {
+            return snapshotResponse(snapshot.eTag() + "-br", "br", snapshot.brotli());
+        }
+        if (accepts(acceptEncoding, "gzip")) {
+            return snapshotResponse(snapshot.eTag() + "-gzip", "gzip", snapshot.gzip());
+        }
+        return snapshotResponse(snapshot.eTag(), null, snapshot.identity());
+    }
+
+    /**
+     * Cambios desde since (cursor devuelto por la llamada anterior), paginados con nextCursor.
+     * Sin since solo devuelve el cursor actual: pedirlo antes de la descarga completa
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangesResponse<ProductResponse>>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            @SparseFields(ProductResponse.class) FieldSet fields) {
+        ChangesResponse<ProductResponse> response = productService.getChanges(since, limit, fields);
+        return ResponseEntity.ok(ApiResponse.ok("Product changes retrieved successfully", response));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<ProductSearchResponse>>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSearchResponse> responses = productService.search(query, limit);
         return ResponseEntity.ok(ApiResponse.ok("Products retrieved successfully", responses));
     }
 
+    @GetMapping("/search/suggest")
+    public ResponseEntity<ApiResponse<List<String>>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<String> suggestions = productService.suggest(query, limit);
+        return ResponseEntity.ok(ApiResponse.ok("Suggestions retrieved successfully", suggestions));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<ProductFacetResponse>> filter(@ModelAttribute ProductFacetRequest request) {
+        ProductFacetResponse response = productService.filter(request);
+        return ResponseEntity.ok(ApiResponse.ok("Products retrieved successfully", response));
+    }
+
+    @GetMapping("/category/{category}")
+    public ResponseEntity<StreamingResponseBody> getByCategory(
+            @PathVariable String category,
+            @SparseFields(ProductResponse.class) FieldSet fields) {
+        return apiResponseStreamer.list(ResponseEntity.ok(), "Products retrieved successfully",
+                () -> productService.streamByCategory(category, fields));
+    }
+
     @GetMapping("/available")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getAvailableProducts() {
-        List<ProductResponse> responses = productService.getAvailableProducts();
-        return ResponseEntity.ok(ApiResponse.ok("Available products retrieved successfully", responses));
+    public ResponseEntity<StreamingResponseBody> getAvailableProducts(
+            @SparseFields(ProductResponse.class) FieldSet fields) {
+        return apiResponseStreamer.list(ResponseEntity.ok(), "Available products retrieved successfully",
+                () -> productService.streamAvailableProducts(fields));
     }
 
     @PutMapping("/{id}")
@@ -70,5 +189,40 @@ public class ProductController {
         StockResponse response = productService.getStock(id);
         return ResponseEntity.ok(ApiResponse.ok("Stock retrieved successfully", response));
     }
-}
 
+    private static ResponseEntity<byte[]> snapshotResponse(String eTag, String contentEncoding, byte[] body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (contentEncoding != null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        return builder.body(body);
+    }
+
+    private static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase(coding)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
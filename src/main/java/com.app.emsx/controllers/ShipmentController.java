@@ -1,14 +1,29 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.ApiResponseStreamer;
+import com.app.emsx.common.WireFormats;
+import com.app.emsx.dtos.batch.BatchItemResponse;
+import com.app.emsx.dtos.shipment.ShipmentEventBatchRequest;
+import com.app.emsx.dtos.shipment.ShipmentEventBatchResponse;
+import com.app.emsx.dtos.shipment.ShipmentHistoryResponse;
 import com.app.emsx.dtos.shipment.ShipmentRequest;
 import com.app.emsx.dtos.shipment.ShipmentResponse;
+import com.app.emsx.dtos.shipment.TrackingBatchRequest;
+import com.app.emsx.dtos.sync.ChangesResponse;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.fields.SparseFields;
+import com.app.emsx.services.ShipmentEventService;
 import com.app.emsx.services.ShipmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,6 +33,9 @@ import java.util.List;
 public class ShipmentController {
 
     private final ShipmentService shipmentService;
+    private final ShipmentEventService shipmentEventService;
+    private final ApiResponseStreamer apiResponseStreamer;
+    private final WireFormats wireFormats;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ShipmentResponse>> create(@Valid @RequestBody ShipmentRequest request) {
@@ -26,16 +44,40 @@ public class ShipmentController {
                 .body(ApiResponse.ok("Shipment created successfully", response));
     }
 
+    /**
+     * Eventos de transportistas por lotes, identificados por tracking code
+     */
+    @PostMapping("/events")
+    public ResponseEntity<ApiResponse<ShipmentEventBatchResponse>> ingestEvents(
+            @Valid @RequestBody ShipmentEventBatchRequest request) {
+        ShipmentEventBatchResponse response = shipmentEventService.ingest(request);
+        return ResponseEntity.ok(ApiResponse.ok("Shipment events processed", response));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ShipmentResponse>> getById(@PathVariable Long id) {
-        ShipmentResponse response = shipmentService.getById(id);
+    public ResponseEntity<ApiResponse<ShipmentResponse>> getById(
+            @PathVariable Long id,
+            @SparseFields(ShipmentResponse.class) FieldSet fields) {
+        ShipmentResponse response = shipmentService.getById(id, fields);
         return ResponseEntity.ok(ApiResponse.ok("Shipment retrieved successfully", response));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ShipmentResponse>>> getAll() {
-        List<ShipmentResponse> responses = shipmentService.getAll();
-        return ResponseEntity.ok(ApiResponse.ok("Shipments retrieved successfully", responses));
+    public ResponseEntity<StreamingResponseBody> getAll(@SparseFields(ShipmentResponse.class) FieldSet fields) {
+        return apiResponseStreamer.list(ResponseEntity.ok(),
+                "Shipments retrieved successfully", () -> shipmentService.streamAll(fields));
+    }
+
+    /**
+     * Envíos creados, modificados o eliminados desde since (incluye cambios de su orden)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangesResponse<ShipmentResponse>>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            @SparseFields(ShipmentResponse.class) FieldSet fields) {
+        ChangesResponse<ShipmentResponse> response = shipmentService.getChanges(since, limit, fields);
+        return ResponseEntity.ok(ApiResponse.ok("Shipment changes retrieved successfully", response));
     }
 
     @PutMapping("/{id}/status")
@@ -46,16 +88,50 @@ public class ShipmentController {
         return ResponseEntity.ok(ApiResponse.ok("Shipment status updated successfully", response));
     }
 
+    /**
+     * Línea de tiempo del envío: un registro por cambio de estado, en orden cronológico
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ApiResponse<List<ShipmentHistoryResponse>>> getHistory(@PathVariable Long id) {
+        List<ShipmentHistoryResponse> response = shipmentService.getHistory(id);
+        return ResponseEntity.ok(ApiResponse.ok("Shipment history retrieved successfully", response));
+    }
+
     @GetMapping("/track/order/{orderId}")
-    public ResponseEntity<ApiResponse<ShipmentResponse>> trackByOrderId(@PathVariable Long orderId) {
-        ShipmentResponse response = shipmentService.trackByOrderId(orderId);
+    public ResponseEntity<ApiResponse<ShipmentResponse>> trackByOrderId(
+            @PathVariable Long orderId,
+            @SparseFields(ShipmentResponse.class) FieldSet fields) {
+        ShipmentResponse response = shipmentService.trackByOrderId(orderId, fields);
         return ResponseEntity.ok(ApiResponse.ok("Shipment tracking retrieved successfully", response));
     }
 
     @GetMapping("/track/code/{trackingCode}")
-    public ResponseEntity<ApiResponse<ShipmentResponse>> trackByTrackingCode(@PathVariable String trackingCode) {
-        ShipmentResponse response = shipmentService.trackByTrackingCode(trackingCode);
-        return ResponseEntity.ok(ApiResponse.ok("Shipment tracking retrieved successfully", response));
+    public ResponseEntity<ApiResponse<ShipmentResponse>> trackByTrackingCode(
+            @PathVariable String trackingCode,
+            @SparseFields(ShipmentResponse.class) FieldSet fields,
+            WebRequest webRequest) {
+        String eTag = wireFormats.eTag(shipmentService.getTrackingETag(trackingCode), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        ShipmentResponse response = shipmentService.trackByTrackingCode(trackingCode, fields);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.ok("Shipment tracking retrieved successfully", response));
+    }
+
+    /**
+     * Seguimiento por lotes: un resultado por código, en el orden pedido
+     */
+    @PostMapping("/track/batch")
+    public ResponseEntity<ApiResponse<List<BatchItemResponse<String, ShipmentResponse>>>> trackBatch(
+            @Valid @RequestBody TrackingBatchRequest request,
+            @SparseFields(ShipmentResponse.class) FieldSet fields) {
+        List<BatchItemResponse<String, ShipmentResponse>> responses =
+                shipmentService.trackByTrackingCodes(request.getTrackingCodes(), fields);
+        return ResponseEntity.ok(ApiResponse.ok("Shipment tracking retrieved successfully", responses));
     }
 
     @DeleteMapping("/{id}")
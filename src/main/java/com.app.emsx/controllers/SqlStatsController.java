@@ -0,0 +1,24 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.sql.SqlEndpointStatsResponse;
+import com.app.emsx.services.SqlStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sql")
+@RequiredArgsConstructor
+public class SqlStatsController {
+
+    private final SqlStatsService sqlStatsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<List<SqlEndpointStatsResponse>>> getEndpointStats() {
+        List<SqlEndpointStatsResponse> responses = sqlStatsService.getEndpointStats();
+        return ResponseEntity.ok(ApiResponse.ok("SQL statistics retrieved successfully", responses));
+    }
+}
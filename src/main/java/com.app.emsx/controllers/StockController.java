@@ -0,0 +1,25 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.stock.StockAdjustmentRequest;
+import com.app.emsx.dtos.stock.StockAdjustmentResponse;
+import com.app.emsx.services.StockService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stock")
+@RequiredArgsConstructor
+public class StockController {
+
+    private final StockService stockService;
+
+    @PostMapping("/adjustments")
+    public ResponseEntity<ApiResponse<StockAdjustmentResponse>> applyAdjustments(
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        StockAdjustmentResponse response = stockService.applyAdjustments(request);
+        return ResponseEntity.ok(ApiResponse.ok("Stock adjustments processed", response));
+    }
+}
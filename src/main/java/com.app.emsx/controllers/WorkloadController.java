@@ -0,0 +1,24 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.workload.WorkloadPoolStatsResponse;
+import com.app.emsx.services.WorkloadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/workloads")
+@RequiredArgsConstructor
+public class WorkloadController {
+
+    private final WorkloadService workloadService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<List<WorkloadPoolStatsResponse>>> getPoolStats() {
+        List<WorkloadPoolStatsResponse> responses = workloadService.getPoolStats();
+        return ResponseEntity.ok(ApiResponse.ok("Workload pool statistics retrieved successfully", responses));
+    }
+}
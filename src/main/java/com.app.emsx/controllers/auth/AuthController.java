@@ -2,12 +2,14 @@ package com.app.emsx.controllers.auth;
 
 import com.app.emsx.dtos.auth.AuthenticationRequest;
 import com.app.emsx.dtos.auth.AuthenticationResponse;
+import com.app.emsx.dtos.auth.RefreshTokenRequest;
 import com.app.emsx.dtos.auth.RegisterRequest;
 import com.app.emsx.entities.User;
 import com.app.emsx.repositories.UserRepository;
 import com.app.emsx.serviceimpls.AuthServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,6 +20,8 @@ import org.springframework.web.bind.annotation.*;
  * -----------------------------------------------------
  * ✔ /register → registra un nuevo usuario
  * ✔ /login → devuelve token y datos del usuario
+ * ✔ /refresh → rota el refresh token y emite un access token nuevo
+ * ✔ /logout → revoca los tokens de la sesión
  * ✔ /me → devuelve el usuario autenticado (JWT requerido)
  */
 @RestController
@@ -47,6 +51,29 @@ public class AuthController {
         return ResponseEntity.ok(authService.authenticate(request));
     }
 
+    /**
+     * ✅ Nuevo par de tokens a cambio de un refresh token (que queda revocado)
+     * Endpoint: POST /api/auth/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    /**
+     * ✅ Cierra la sesión: revoca el refresh token y el access token del header, si viene
+     * Endpoint: POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authService.logout(request, accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * ✅ Devuelve los datos del usuario autenticado según el token JWT
      * Endpoint: GET /api/auth/me
@@ -0,0 +1,31 @@
+package com.app.emsx.controllers.auth;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.entities.User;
+import com.app.emsx.security.AuthenticatedUser;
+import com.app.emsx.serviceimpls.AuthServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * SessionController
+ * -----------------------------------------------------
+ * ✔ DELETE /api/sessions → revoca todos los tokens del usuario autenticado
+ *   (fuera de /api/auth, que el filtro JWT no autentica)
+ */
+@RestController
+@RequestMapping("/api/sessions")
+@RequiredArgsConstructor
+public class SessionController {
+
+    private final AuthServiceImpl authService;
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> revokeAll(@AuthenticationPrincipal Object principal) {
+        Long userId = principal instanceof AuthenticatedUser user ? user.id() : ((User) principal).getId();
+        authService.revokeAllTokens(userId);
+        return ResponseEntity.ok(ApiResponse.ok("All sessions revoked successfully", null));
+    }
+}
@@ -23,6 +23,16 @@ public class AuthenticationResponse {
      */
     private String token;
 
+    /**
+     * Refresh token de un solo uso para POST /api/auth/refresh
+     */
+    private String refreshToken;
+
+    /**
+     * Segundos de vida del access token
+     */
+    private Long expiresIn;
+
     /**
      * ID del usuario (opcional para frontend)
      */
@@ -0,0 +1,26 @@
+package com.app.emsx.dtos.auth;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RefreshTokenRequest
+ * -----------------------------------------------------
+ * ✔ DTO con el refresh token recibido en el login
+ * ✔ Usado en /api/auth/refresh y /api/auth/logout
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+    /**
+     * Refresh token vigente (de un solo uso)
+     */
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
@@ -0,0 +1,19 @@
+package com.app.emsx.dtos.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Una entrada de una lectura por lotes: la clave pedida, si existe y, en ese caso, el recurso
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResponse<K, T> {
+    private K key;
+    private boolean found;
+    private T data;
+}
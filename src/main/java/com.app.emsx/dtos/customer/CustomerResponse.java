@@ -1,5 +1,7 @@
 package com.app.emsx.dtos.customer;
 
+import com.app.emsx.fields.FieldSet;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +13,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(FieldSet.FILTER)
 public class CustomerResponse {
     private Long id;
     private String name;
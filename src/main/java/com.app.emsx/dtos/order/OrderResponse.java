@@ -1,5 +1,7 @@
 package com.app.emsx.dtos.order;
 
+import com.app.emsx.fields.FieldSet;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,6 +15,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(FieldSet.FILTER)
 public class OrderResponse {
     private Long id;
     private LocalDateTime date;
@@ -0,0 +1,21 @@
+package com.app.emsx.dtos.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetRequest {
+    private List<String> category;
+    private List<String> status;
+    private List<String> availability;
+    private List<String> priceBand;
+    private int page;
+    private int size;
+}
@@ -0,0 +1,21 @@
+package com.app.emsx.dtos.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResponse {
+    private List<ProductResponse> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private Map<String, Map<String, Integer>> facets;
+}
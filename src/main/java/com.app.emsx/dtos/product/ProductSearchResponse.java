@@ -0,0 +1,21 @@
+package com.app.emsx.dtos.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+    private Long id;
+    private String name;
+    private String sku;
+    private String category;
+    private BigDecimal price;
+    private double score;
+}
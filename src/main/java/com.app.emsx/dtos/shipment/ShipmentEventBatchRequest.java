@@ -0,0 +1,40 @@
+package com.app.emsx.dtos.shipment;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentEventBatchRequest {
+    @NotEmpty(message = "events are required")
+    @Size(max = 50000, message = "At most 50000 events per request")
+    @Valid
+    private List<Event> events;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event {
+        @NotBlank(message = "Tracking code is required")
+        private String trackingCode;
+
+        @NotBlank(message = "Status is required")
+        private String status;
+
+        @NotNull(message = "occurredAt is required")
+        private Instant occurredAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.app.emsx.dtos.shipment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentEventBatchResponse {
+    private int totalEvents;
+    private int applied;            // quedó como estado actual del envío
+    private int superseded;         // válido, pero un evento posterior del lote lo reemplazó
+    private int duplicates;
+    private int stale;              // anterior al último evento ya aplicado
+    private int rejected;
+    private int ordersCancelled;
+    private List<RejectedEvent> rejectedEvents;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedEvent {
+        private int line;
+        private String trackingCode;
+        private String status;
+        private String reason;
+    }
+}
@@ -0,0 +1,19 @@
+package com.app.emsx.dtos.shipment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentHistoryResponse {
+    private String status;
+    private Instant occurredAt;
+    private Instant recordedAt;
+    private String source;
+}
@@ -1,5 +1,7 @@
 package com.app.emsx.dtos.shipment;
 
+import com.app.emsx.fields.FieldSet;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(FieldSet.FILTER)
 public class ShipmentResponse {
     private Long id;
     private String trackingCode;
@@ -0,0 +1,21 @@
+package com.app.emsx.dtos.shipment;
+
+import com.app.emsx.common.BatchLookup;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingBatchRequest {
+    @NotEmpty(message = "trackingCodes are required")
+    @Size(max = BatchLookup.MAX_KEYS, message = "At most 200 tracking codes per request")
+    private List<String> trackingCodes;
+}
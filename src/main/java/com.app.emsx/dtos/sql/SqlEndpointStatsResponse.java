@@ -0,0 +1,22 @@
+package com.app.emsx.dtos.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlEndpointStatsResponse {
+    // Método + patrón de ruta, p. ej. "GET /api/orders/{id}"
+    private String endpoint;
+    private long requests;
+    private double averageStatements;
+    private long maxStatements;
+    private double averageRows;
+    private double averageJdbcMillis;
+    // Peticiones en las que una misma forma de sentencia se repitió (posible N+1)
+    private long suspectedNPlusOne;
+}
@@ -0,0 +1,45 @@
+package com.app.emsx.dtos.stock;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+    @NotEmpty(message = "lines are required")
+    @Size(max = 50000, message = "At most 50000 lines per request")
+    @Valid
+    private List<Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+
+        @Size(max = 12, message = "SKU must be at most 12 characters")
+        private String sku;
+
+        @NotNull(message = "Mode is required")
+        private Mode mode;
+
+        @NotNull(message = "Quantity is required")
+        private Integer quantity;
+    }
+
+    public enum Mode {
+        ABSOLUTE,
+        DELTA
+    }
+}
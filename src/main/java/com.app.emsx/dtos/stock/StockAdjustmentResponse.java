@@ -0,0 +1,30 @@
+package com.app.emsx.dtos.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResponse {
+    private int totalLines;
+    private int applied;
+    private int rejected;
+    private List<RejectedLine> rejectedLines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedLine {
+        private int line;
+        private Long productId;
+        private String sku;
+        private String reason;
+    }
+}
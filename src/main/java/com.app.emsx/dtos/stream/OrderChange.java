@@ -0,0 +1,20 @@
+package com.app.emsx.dtos.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderChange {
+    private Long id;
+    private Long customerId;
+    private String status;
+    private BigDecimal total;
+    private boolean deleted;
+}
@@ -0,0 +1,20 @@
+package com.app.emsx.dtos.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentChange {
+    private Long id;
+    private String trackingCode;
+    private Long orderId;
+    private String status;
+    private Instant occurredAt;
+}
@@ -0,0 +1,17 @@
+package com.app.emsx.dtos.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChange {
+    private Long productId;
+    private Integer quantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+}
@@ -0,0 +1,19 @@
+package com.app.emsx.dtos.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Un recurso modificado (data = estado actual) o eliminado (deleted = true, sin data)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEntry<T> {
+    private Long id;
+    private boolean deleted;
+    private T data;
+}
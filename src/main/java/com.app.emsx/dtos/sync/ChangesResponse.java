@@ -0,0 +1,18 @@
+package com.app.emsx.dtos.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesResponse<T> {
+    private List<ChangeEntry<T>> changes;
+    private String nextCursor;      // valor de since para la siguiente llamada
+    private boolean hasMore;        // true = hay más cambios ya disponibles, pedir de inmediato
+}
@@ -0,0 +1,29 @@
+package com.app.emsx.dtos.workload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadPoolStatsResponse {
+    private String workload;
+    // "primary" o el nombre de la réplica (replica1, replica2...)
+    private String target;
+    // false: réplica fuera de rotación (el primario siempre true)
+    private boolean available;
+    private String poolName;
+    private int maximumPoolSize;
+    private long statementTimeoutMs;
+    // Estado actual del pool (ceros si todavía no abrió conexiones)
+    private int activeConnections;
+    private int idleConnections;
+    private int threadsAwaitingConnection;
+    // Acumulados desde el arranque
+    private long acquisitions;
+    private double averageAcquireMillis;
+    private long acquireTimeouts;
+}
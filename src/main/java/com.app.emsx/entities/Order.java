@@ -26,6 +26,14 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Solo lectura: la asigna el trigger de db/change-tracking.sql
+    @Column(name = "change_seq", insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long changeSeq;
+
     @Column(nullable = false)
     private LocalDateTime date;
 
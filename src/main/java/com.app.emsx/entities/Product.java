@@ -1,7 +1,12 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -14,6 +19,9 @@ import java.util.List;
  */
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PRODUCTS)
+@NaturalIdCache(region = HibernateCacheConfig.PRODUCTS_BY_SKU)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +33,18 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    /**
+     * Secuencia de cambios (id de la última transacción que tocó la fila).
+     * La mantiene un trigger de la base (db/change-tracking.sql), no Hibernate:
+     * en memoria puede quedar desactualizada.
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long changeSeq;
+
     @Column(nullable = false)
     private String name;
 
@@ -37,6 +57,7 @@ public class Product {
     @Column(nullable = false)
     private String category;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true, length = 12)
     private String sku;
 
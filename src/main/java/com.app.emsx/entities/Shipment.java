@@ -2,6 +2,9 @@ package com.app.emsx.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
 
 /**
  * Shipment Entity
@@ -21,6 +24,14 @@ public class Shipment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Solo lectura: la asigna el trigger de db/change-tracking.sql
+    @Column(name = "change_seq", insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long changeSeq;
+
     @Column(nullable = false, unique = true)
     private String trackingCode;
 
@@ -34,6 +45,15 @@ public class Shipment {
     @Column
     private String estimatedDeliveryDate;
 
+    // Momento (según el transportista) del último evento aplicado: los anteriores llegan tarde
+    @Column
+    private Instant lastEventAt;
+
+    // Límite inferior del historial: acota las particiones a recorrer
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false, unique = true)
     private Order order;
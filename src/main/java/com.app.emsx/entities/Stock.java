@@ -1,7 +1,10 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Stock Entity
@@ -10,6 +13,8 @@ import lombok.*;
  */
 @Entity
 @Table(name = "stocks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.STOCKS)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +26,14 @@ public class Stock {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Cuenta también como cambio del producto en /api/products/changes
+    @Column(name = "change_seq", insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long changeSeq;
+
     @Column(nullable = false)
     private Integer quantity;
 
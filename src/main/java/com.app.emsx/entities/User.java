@@ -1,7 +1,13 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,6 +24,9 @@ import java.util.List;
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
+@NaturalIdCache(region = HibernateCacheConfig.USERS_BY_EMAIL)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +44,7 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String lastname;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -47,6 +57,13 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String role = "ROLE_USER";
 
+    /**
+     * Versión de los tokens del usuario: al incrementarla quedan revocados todos los emitidos
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion;
+
     /**
      * ✅ Devuelve la lista de roles del usuario
      */
@@ -0,0 +1,21 @@
+package com.app.emsx.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * CarrierEventsAppliedEvent
+ * -----------------------------------------------------
+ * ✔ Se publica por cada bloque de eventos de transportista confirmado
+ * ✔ Un cambio por envío actualizado (estado final del bloque) y por orden cancelada
+ * ✔ El historial de esos envíos ya lo escribió la misma sentencia SQL
+ */
+@Getter
+@AllArgsConstructor
+public class CarrierEventsAppliedEvent {
+
+    private final List<ShipmentStatusChangedEvent> shipments;
+    private final List<OrderChangedEvent> orders;
+}
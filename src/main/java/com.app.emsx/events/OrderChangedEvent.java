@@ -0,0 +1,34 @@
+package com.app.emsx.events;
+
+import com.app.emsx.entities.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * OrderChangedEvent
+ * -----------------------------------------------------
+ * ✔ Se publica al crear una orden, cambiar su estado o total, o eliminarla
+ * ✔ Lleva el cliente para que los suscriptores por cliente no consulten la base de datos
+ */
+@Getter
+@AllArgsConstructor
+public class OrderChangedEvent {
+
+    private final Long orderId;
+    private final Long customerId;
+    private final Order.OrderStatus status;
+    private final BigDecimal total;
+    private final boolean deleted;
+
+    public static OrderChangedEvent of(Order order) {
+        return new OrderChangedEvent(order.getId(), order.getCustomer().getId(),
+                order.getStatus(), order.getTotal(), false);
+    }
+
+    public static OrderChangedEvent deleted(Order order) {
+        return new OrderChangedEvent(order.getId(), order.getCustomer().getId(),
+                order.getStatus(), order.getTotal(), true);
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.emsx.events;
+
+import com.app.emsx.dtos.product.ProductResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ProductChangedEvent
+ * -----------------------------------------------------
+ * ✔ Se publica desde ProductServiceImpl al crear, actualizar o dar de baja un producto
+ * ✔ Lleva la vista ya mapeada para que los índices en memoria no vuelvan a la base de datos
+ * ✔ Los listeners lo consumen después del commit (@TransactionalEventListener)
+ * ✔ stockVersion = versión del stock incluido en la vista: se compara con la de los
+ *   StockChangedEvent para no pisar una disponibilidad más nueva con una más vieja
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final ChangeType type;
+    private final ProductResponse product;
+    private final Long stockVersion;
+
+    public static ProductChangedEvent created(ProductResponse product, Long stockVersion) {
+        return new ProductChangedEvent(product.getId(), ChangeType.CREATED, product, stockVersion);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse product, Long stockVersion) {
+        return new ProductChangedEvent(product.getId(), ChangeType.UPDATED, product, stockVersion);
+    }
+
+    public static ProductChangedEvent deleted(ProductResponse product, Long stockVersion) {
+        return new ProductChangedEvent(product.getId(), ChangeType.DELETED, product, stockVersion);
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.emsx.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ProductsImportedEvent
+ * -----------------------------------------------------
+ * ✔ Se publica tras una importación masiva que escribió products / stocks por SQL directo
+ * ✔ Los listeners invalidan cachés y reconstruyen los índices en memoria después del commit
+ */
+@Getter
+@AllArgsConstructor
+public class ProductsImportedEvent {
+
+    private final long created;
+    private final long updated;
+}
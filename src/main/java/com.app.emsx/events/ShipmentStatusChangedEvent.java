@@ -0,0 +1,34 @@
+package com.app.emsx.events;
+
+import com.app.emsx.entities.Order;
+import com.app.emsx.entities.Shipment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * ShipmentStatusChangedEvent
+ * -----------------------------------------------------
+ * ✔ Se publica cuando un envío se crea o cambia de estado desde la API
+ *   (la ingesta de transportistas publica CarrierEventsAppliedEvent y
+ *   escribe su historial en SQL)
+ * ✔ occurredAt es el momento del cambio en esta aplicación
+ */
+@Getter
+@AllArgsConstructor
+public class ShipmentStatusChangedEvent {
+
+    private final Long shipmentId;
+    private final String trackingCode;
+    private final Long orderId;
+    private final Long customerId;
+    private final Shipment.ShipmentStatus status;
+    private final Instant occurredAt;
+
+    public static ShipmentStatusChangedEvent of(Shipment shipment) {
+        Order order = shipment.getOrder();
+        return new ShipmentStatusChangedEvent(shipment.getId(), shipment.getTrackingCode(),
+                order.getId(), order.getCustomer().getId(), shipment.getStatus(), Instant.now());
+    }
+}
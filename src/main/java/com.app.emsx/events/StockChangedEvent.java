@@ -0,0 +1,31 @@
+package com.app.emsx.events;
+
+import com.app.emsx.entities.Stock;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * StockChangedEvent
+ * -----------------------------------------------------
+ * ✔ Se publica cuando cambia la cantidad o la reserva de stock de un producto
+ * ✔ Lleva los valores finales para que los índices en memoria no consulten la base de datos
+ * ✔ version = la de la fila tras el commit: los listeners AFTER_COMMIT de transacciones
+ *   concurrentes pueden llegar desordenados y así descartan el estado más viejo
+ */
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+
+    private final Long productId;
+    private final Integer quantity;
+    private final Integer reservedQuantity;
+    private final Long version;
+
+    /**
+     * ✅ Para un Stock modificado y aún sin flush: el flush del commit le suma 1 a la versión
+     */
+    public static StockChangedEvent of(Long productId, Stock stock) {
+        Long version = stock.getVersion() != null ? stock.getVersion() + 1 : null;
+        return new StockChangedEvent(productId, stock.getQuantity(), stock.getReservedQuantity(), version);
+    }
+}
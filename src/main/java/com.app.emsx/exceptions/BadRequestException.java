@@ -0,0 +1,17 @@
+package com.app.emsx.exceptions;
+
+/**
+ * ❌ BadRequestException
+ * ---------------------------------------------------------
+ * Excepción para parámetros de consulta inválidos que no pasan por @Valid,
+ * por ejemplo:
+ *   - Pedir en fields= un campo que el recurso no tiene
+ *
+ * Es capturada por el GlobalExceptionHandler y devuelve HTTP 400 (Bad Request)
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -2,12 +2,16 @@ package com.app.emsx.exceptions;
 
 import com.app.emsx.common.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -52,6 +56,17 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    /**
+     * ❌ Parámetros de consulta inválidos (400)
+     * Ejemplo: fields=foo en un recurso que no tiene el campo "foo"
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadRequest(BadRequestException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.fail(ex.getMessage()));
+    }
+
     /**
      * 🚫 Recursos no encontrados (404)
      * Ejemplo: buscar un empleado o departamento inexistente
@@ -74,6 +89,48 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.fail(ex.getMessage()));
     }
 
+    /**
+     * 🔁 Conflicto de versión optimista (409)
+     * Ejemplo: dos peticiones modifican el mismo stock al mismo tiempo
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.fail("El recurso fue modificado por otra operación, intente nuevamente"));
+    }
+
+    /**
+     * 🔒 Credenciales o refresh token inválidos (401)
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAuthentication(AuthenticationException ex) {
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.fail(ex.getMessage()));
+    }
+
+    /**
+     * ⏳ Recurso saturado (503)
+     * Ejemplo: ráfaga de logins que llena la cola de BCrypt; el cliente reintenta tras Retry-After
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.fail(ex.getMessage()));
+    }
+
+    /**
+     * 🔌 Cliente desconectado durante una respuesta asíncrona (SSE, listas en streaming)
+     * No queda a quién responder: se ignora
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleDisconnectedClient(AsyncRequestNotUsableException ex) {
+        // la conexión ya no existe
+    }
+
     /**
      * 💥 Errores genéricos no controlados (500)
      * Retorna: HTTP 500 (Internal Server Error)
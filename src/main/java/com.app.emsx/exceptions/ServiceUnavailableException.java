@@ -0,0 +1,25 @@
+package com.app.emsx.exceptions;
+
+/**
+ * ⏳ ServiceUnavailableException
+ * ---------------------------------------------------------
+ * Excepción para rechazar trabajo cuando un recurso acotado está saturado,
+ * por ejemplo:
+ *   - La cola de hashing de contraseñas (login / registro) está llena
+ *
+ * Es capturada por el GlobalExceptionHandler y devuelve HTTP 503 (Service Unavailable)
+ * con la cabecera Retry-After
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
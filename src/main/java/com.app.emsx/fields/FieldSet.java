@@ -0,0 +1,94 @@
+package com.app.emsx.fields;
+
+import com.app.emsx.exceptions.BadRequestException;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * FieldSet
+ * -----------------------------------------------------
+ * ✔ Campos de primer nivel pedidos con ?fields=status,total,customer
+ * ✔ Sin parámetro = todos los campos (respuesta completa, comportamiento anterior)
+ * ✔ El id se incluye siempre; un campo que el DTO no tiene es un 400
+ * ✔ Sirve a la vez para elegir qué asociaciones consultar y para recortar
+ *   la serialización (filtro Jackson FILTER, declarado con @JsonFilter en los DTO)
+ */
+public final class FieldSet {
+
+    public static final String PARAM = "fields";
+    public static final String FILTER = "fieldSet";
+    public static final String REQUEST_ATTRIBUTE = FieldSet.class.getName();
+
+    private static final FieldSet ALL = new FieldSet(null);
+
+    private final Set<String> fields;
+
+    private FieldSet(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSet all() {
+        return ALL;
+    }
+
+    public static FieldSet parse(String fields, Class<?> response) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> allowed = Arrays.stream(response.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add("id");
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(field)) {
+                throw new BadRequestException("Campo desconocido en fields: " + field
+                        + ". Permitidos: " + String.join(", ", allowed));
+            }
+            requested.add(field);
+        }
+        return new FieldSet(Set.copyOf(requested));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * ✅ Filtros para ObjectWriter / MappingJacksonValue
+     */
+    public FilterProvider filters() {
+        return new SimpleFilterProvider().addFilter(FILTER, fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+
+    /**
+     * ✅ Filtro por defecto de los ObjectMapper: sin fields, los DTO se serializan completos
+     */
+    public static FilterProvider defaultFilters() {
+        return ALL.filters();
+    }
+
+    @Override
+    public String toString() {
+        return fields == null ? "*" : String.join(",", fields);
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.emsx.fields;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * FieldSetArgumentResolver
+ * -----------------------------------------------------
+ * ✔ Convierte ?fields= en el FieldSet de los parámetros @SparseFields
+ * ✔ Lo deja como atributo de la petición: FieldSetResponseBodyAdvice y
+ *   ApiResponseStreamer lo usan para recortar la serialización
+ */
+public class FieldSetArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(SparseFields.class)
+                && FieldSet.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public FieldSet resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                    NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        SparseFields sparseFields = parameter.getParameterAnnotation(SparseFields.class);
+        FieldSet fields = FieldSet.parse(webRequest.getParameter(FieldSet.PARAM), sparseFields.value());
+        webRequest.setAttribute(FieldSet.REQUEST_ATTRIBUTE, fields, RequestAttributes.SCOPE_REQUEST);
+        return fields;
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.emsx.fields;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * FieldSetResponseBodyAdvice
+ * -----------------------------------------------------
+ * ✔ Aplica el FieldSet de la petición a las respuestas serializadas con Jackson
+ *   (JSON, CBOR y Smile)
+ * ✔ Sin fields= no toca la respuesta: se usa el filtro por defecto (todos los campos)
+ */
+@ControllerAdvice
+public class FieldSetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(FieldSet.REQUEST_ATTRIBUTE) instanceof FieldSet fields
+                && !fields.isAll()) {
+            bodyContainer.setFilters(fields.filters());
+        }
+    }
+}
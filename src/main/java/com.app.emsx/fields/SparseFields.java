@@ -0,0 +1,20 @@
+package com.app.emsx.fields;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SparseFields
+ * -----------------------------------------------------
+ * ✔ Marca un parámetro FieldSet de un controlador: se resuelve desde ?fields=
+ *   validando los nombres contra el DTO indicado
+ * ✔ Solo los endpoints que lo declaran recortan la respuesta
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFields {
+
+    Class<?> value();
+}
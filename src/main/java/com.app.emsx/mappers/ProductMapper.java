@@ -0,0 +1,51 @@
+package com.app.emsx.mappers;
+
+import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.entities.Product;
+import com.app.emsx.entities.Stock;
+
+public class ProductMapper {
+
+    public static ProductResponse toResponse(Product product) {
+        ProductResponse.StockInfo stockInfo = null;
+        if (product.getStock() != null) {
+            Stock stock = product.getStock();
+            stockInfo = toStockInfo(stock.getQuantity(), stock.getReservedQuantity());
+        }
+
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .category(product.getCategory())
+                .sku(product.getSku())
+                .status(product.getStatus() != null ? product.getStatus().name() : Product.ProductStatus.ACTIVE.name())
+                .stock(stockInfo)
+                .build();
+    }
+
+    public static ProductResponse.StockInfo toStockInfo(Integer quantity, Integer reservedQuantity) {
+        return ProductResponse.StockInfo.builder()
+                .quantity(quantity)
+                .reservedQuantity(reservedQuantity)
+                .availableQuantity(quantity - reservedQuantity)
+                .build();
+    }
+
+    /**
+     * Copia del response con un stock distinto (los responses cacheados no se mutan)
+     */
+    public static ProductResponse withStock(ProductResponse response, Integer quantity, Integer reservedQuantity) {
+        return ProductResponse.builder()
+                .id(response.getId())
+                .name(response.getName())
+                .description(response.getDescription())
+                .price(response.getPrice())
+                .category(response.getCategory())
+                .sku(response.getSku())
+                .status(response.getStatus())
+                .stock(toStockInfo(quantity, reservedQuantity))
+                .build();
+    }
+}
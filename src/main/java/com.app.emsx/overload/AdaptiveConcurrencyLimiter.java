@@ -0,0 +1,174 @@
+package com.app.emsx.overload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AdaptiveConcurrencyLimiter
+ * -----------------------------------------------------
+ * ✔ Límite de peticiones en curso que se ajusta solo (AIMD), una vez por ventana:
+ *   - sobrecarga (latencia media > latency-tolerance × la de referencia, espera media
+ *     por conexión de Hikari > pool-wait-threshold-ms o algún timeout del pool)
+ *     → límite × backoff-ratio
+ *   - sin sobrecarga y con el límite en uso → límite + 1
+ * ✔ La latencia de referencia es una media móvil lenta de las ventanas sanas
+ * ✔ Admisión por prioridad: una petición entra si las en curso no superan
+ *   share × límite de su clase (RequestPriority)
+ * ✔ Los streams de larga duración (SSE) no cuentan como en curso: inactivos no ocupan
+ *   hilo ni conexión; se llevan en un contador aparte (getOpenStreams)
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_ALPHA = 0.05;
+
+    private final PoolWaitMonitor poolWaitMonitor;
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final long poolWaitThresholdNanos;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private volatile int limit;
+
+    // Ventana en curso
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(PoolWaitMonitor poolWaitMonitor,
+                                      @Value("${emsx.concurrency.enabled:true}") boolean enabled,
+                                      @Value("${emsx.concurrency.initial-limit:100}") int initialLimit,
+                                      @Value("${emsx.concurrency.min-limit:10}") int minLimit,
+                                      @Value("${emsx.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${emsx.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+                                      @Value("${emsx.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${emsx.concurrency.pool-wait-threshold-ms:50}") long poolWaitThresholdMillis,
+                                      @Value("${emsx.concurrency.window-ms:250}") long windowMillis) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("emsx.concurrency: 1 <= min-limit <= max-limit y 0 < backoff-ratio < 1");
+        }
+        this.poolWaitMonitor = poolWaitMonitor;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.poolWaitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(poolWaitThresholdMillis);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getOpenStreams() {
+        return openStreams.get();
+    }
+
+    public void streamOpened() {
+        openStreams.incrementAndGet();
+    }
+
+    public void streamClosed() {
+        openStreams.decrementAndGet();
+    }
+
+    /**
+     * ✅ Reserva un lugar para la petición; false si su clase ya no tiene cupo.
+     * Con true, el llamador debe invocar release() al terminar
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * ✅ Libera el lugar; latencyNanos < 0 si la petición no aporta muestra
+     * (p. ej. la que terminó con excepción o un stream SSE)
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            this.latencyNanos.add(latencyNanos);
+            samples.increment();
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            adjust();
+        }
+    }
+
+    // Solo un hilo por ventana llega aquí (el que ganó el CAS de windowStart)
+    private synchronized void adjust() {
+        long count = samples.sumThenReset();
+        long total = latencyNanos.sumThenReset();
+        long rejections = rejected.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        PoolWaitMonitor.Window poolWait = poolWaitMonitor.drain();
+        if (count == 0 && poolWait.acquisitions() == 0 && poolWait.timeouts() == 0) {
+            return;
+        }
+
+        double average = count > 0 ? (double) total / count : baselineNanos;
+        if (baselineNanos == 0) {
+            baselineNanos = average;
+        }
+        boolean overloaded = average > baselineNanos * latencyTolerance
+                || poolWait.averageNanos() > poolWaitThresholdNanos
+                || poolWait.timeouts() > 0;
+
+        int previous = limit;
+        if (overloaded) {
+            limit = Math.max(minLimit, (int) (previous * backoffRatio));
+        } else {
+            baselineNanos += BASELINE_ALPHA * (average - baselineNanos);
+            if (rejections > 0 || peak >= previous * RequestPriority.SHEDDABLE.share()) {
+                limit = Math.min(maxLimit, previous + 1);
+            }
+        }
+        if (overloaded && limit != previous) {
+            log.debug("Límite de concurrencia {} → {} (latencia media {} ms, referencia {} ms, espera por conexión {} ms, timeouts {}, streams abiertos {})",
+                    previous, limit, millis(average), millis(baselineNanos),
+                    millis(poolWait.averageNanos()), poolWait.timeouts(), openStreams.get());
+        }
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.1f", nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,169 @@
+package com.app.emsx.overload;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.PathRule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ConcurrencyLimitFilter
+ * -----------------------------------------------------
+ * ✔ Último filtro antes de los controladores: admite la petición según su prioridad
+ *   (emsx.concurrency.critical / sheddable, el resto NORMAL) y el límite adaptativo
+ * ✔ Sin cupo → 503 con Retry-After al instante, en lugar de encolar en Tomcat
+ *   hasta que todo venza junto
+ * ✔ Mide la latencia de cada petición para AdaptiveConcurrencyLimiter
+ * ✔ Respuesta async (listados en streaming, /changes, snapshot, exportaciones): el lugar
+ *   se retiene hasta que termina (AsyncListener) y esa es su latencia, no la del primer despacho
+ * ✔ emsx.concurrency.long-lived (SSE): pasa la admisión, libera el lugar al terminar el
+ *   primer despacho sin aportar latencia y se cuenta aparte mientras sigue abierto
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final List<PathRule> critical;
+    private final List<PathRule> sheddable;
+    private final List<PathRule> longLived;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                  ObjectMapper objectMapper,
+                                  @Value("${emsx.concurrency.critical:}") List<String> critical,
+                                  @Value("${emsx.concurrency.sheddable:}") List<String> sheddable,
+                                  @Value("${emsx.concurrency.long-lived:}") List<String> longLived) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.critical = rules(critical);
+        this.sheddable = rules(sheddable);
+        this.longLived = rules(longLived);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!limiter.tryAcquire(priority(request))) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(RETRY_AFTER_SECONDS));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.fail("Server is overloaded, retry shortly"));
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed) {
+                limiter.release(-1);
+            } else if (!request.isAsyncStarted()) {
+                limiter.release(System.nanoTime() - start);
+            } else {
+                releaseOnAsyncCompletion(request, start);
+            }
+        }
+    }
+
+    /**
+     * La respuesta sigue en otro hilo: el lugar se libera cuando termina (una sola vez,
+     * aunque lleguen onError/onTimeout y luego onComplete)
+     */
+    private void releaseOnAsyncCompletion(HttpServletRequest request, long start) {
+        boolean stream = matches(longLived, request.getMethod(), request.getServletPath());
+        if (stream) {
+            limiter.release(-1);
+            limiter.streamOpened();
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                finish();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                finish();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                finish();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // Un nuevo startAsync descarta los listeners anteriores
+                event.getAsyncContext().addListener(this);
+            }
+
+            private void finish() {
+                if (!released.compareAndSet(false, true)) {
+                    return;
+                }
+                if (stream) {
+                    limiter.streamClosed();
+                } else {
+                    limiter.release(System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    private RequestPriority priority(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getServletPath();
+        if (matches(critical, method, path)) {
+            return RequestPriority.CRITICAL;
+        }
+        if (matches(sheddable, method, path)) {
+            return RequestPriority.SHEDDABLE;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private static boolean matches(List<PathRule> rules, String method, String path) {
+        for (PathRule rule : rules) {
+            if (rule.matches(method, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<PathRule> rules(List<String> rules) {
+        return rules.stream()
+                .filter(rule -> !rule.isBlank())
+                .map(PathRule::parse)
+                .toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.app.emsx.overload;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PoolWaitMonitor
+ * -----------------------------------------------------
+ * ✔ Mide cuánto esperan los hilos por una conexión de Hikari: se registra como
+ *   MetricsTrackerFactory de cada HikariDataSource del contexto
+ * ✔ AdaptiveConcurrencyLimiter lo consulta por ventana (promedio y timeouts);
+ *   una espera que crece es la señal más temprana de que Postgres no da abasto
+ * ✔ Además acumula por pool (sin reiniciar) para las estadísticas de workloads
+ */
+@Component
+public class PoolWaitMonitor implements BeanPostProcessor {
+
+    /**
+     * Espera por conexión acumulada desde la última lectura
+     */
+    public record Window(long acquisitions, long averageNanos, long timeouts) {
+    }
+
+    /**
+     * Totales de un pool desde el arranque
+     */
+    public record Totals(long acquisitions, long averageNanos, long timeouts) {
+    }
+
+    private static final class PoolCounters {
+        final LongAdder waitNanos = new LongAdder();
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+    }
+
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final Map<String, PoolCounters> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            attach(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * ✅ Mide también un pool que no es bean (p. ej. los de las réplicas)
+     */
+    public void attach(HikariDataSource dataSource) {
+        dataSource.setMetricsTrackerFactory((poolName, poolStats) -> {
+            PoolCounters pool = pools.computeIfAbsent(poolName, name -> new PoolCounters());
+            return new IMetricsTracker() {
+                @Override
+                public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                    waitNanos.add(elapsedAcquiredNanos);
+                    acquisitions.increment();
+                    pool.waitNanos.add(elapsedAcquiredNanos);
+                    pool.acquisitions.increment();
+                }
+
+                @Override
+                public void recordConnectionTimeout() {
+                    timeouts.increment();
+                    pool.timeouts.increment();
+                }
+            };
+        });
+    }
+
+    /**
+     * ✅ Devuelve y reinicia lo medido desde la llamada anterior
+     */
+    public Window drain() {
+        long count = acquisitions.sumThenReset();
+        long total = waitNanos.sumThenReset();
+        return new Window(count, count > 0 ? total / count : 0, timeouts.sumThenReset());
+    }
+
+    /**
+     * ✅ Totales del pool con ese nombre (ceros si todavía no arrancó)
+     */
+    public Totals totals(String poolName) {
+        PoolCounters pool = pools.get(poolName);
+        if (pool == null) {
+            return new Totals(0, 0, 0);
+        }
+        long count = pool.acquisitions.sum();
+        return new Totals(count, count > 0 ? pool.waitNanos.sum() / count : 0, pool.timeouts.sum());
+    }
+}
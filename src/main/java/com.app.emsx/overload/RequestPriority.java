@@ -0,0 +1,25 @@
+package com.app.emsx.overload;
+
+/**
+ * RequestPriority
+ * -----------------------------------------------------
+ * ✔ Clase de prioridad de una petición frente al límite de concurrencia:
+ *   cada una puede ocupar hasta share × límite (las de menor share se cortan antes)
+ * ✔ CRITICAL: creación de órdenes, tracking, login; SHEDDABLE: listados, exportaciones,
+ *   /changes; NORMAL: el resto
+ */
+public enum RequestPriority {
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    SHEDDABLE(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double share() {
+        return share;
+    }
+}
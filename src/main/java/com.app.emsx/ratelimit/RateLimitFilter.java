@@ -0,0 +1,75 @@
+package com.app.emsx.ratelimit;
+
+import com.app.emsx.common.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * RateLimitFilter
+ * -----------------------------------------------------
+ * ✔ Va después de JwtAuthenticationFilter: limita por usuario autenticado y, sin
+ *   token (login, registro), por IP
+ * ✔ Detrás de un proxy / balanceador la IP es la del cliente solo con
+ *   server.forward-headers-strategy=native (X-Forwarded-For de proxies internos);
+ *   sin eso todos los anónimos comparten el bucket de la IP del proxy
+ * ✔ Cabeceras RateLimit-Limit / RateLimit-Remaining / RateLimit-Reset en cada respuesta
+ * ✔ Sin tokens → 429 con Retry-After, antes de llegar al controlador y a la base
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        RateLimiter.Result result = rateLimiter.tryAcquire(
+                authenticated ? authentication.getName() : request.getRemoteAddr(),
+                authenticated,
+                request.getMethod(),
+                request.getServletPath());
+
+        response.setHeader("RateLimit-Limit", Long.toString(result.capacity()));
+        response.setHeader("RateLimit-Remaining", Long.toString(result.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(result.resetSeconds()));
+
+        if (!result.allowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(result.retryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.fail("Too many requests, retry in " + result.retryAfterSeconds() + "s"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,43 @@
+package com.app.emsx.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RateLimitProperties
+ * -----------------------------------------------------
+ * ✔ Límites por grupo de endpoints (emsx.rate-limit.groups.<nombre>.*):
+ *   paths (PathRule: rutas exactas o prefijos /api/orders/**, con método opcional), capacity (ráfaga) y refill-per-second (tasa sostenida)
+ * ✔ Una petición cae en el primer grupo cuyo patrón coincide; si no, en default-group
+ * ✔ Cada cliente (usuario autenticado o IP) tiene su propio bucket por grupo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "emsx.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Tope de buckets retenidos (clientes × grupos); al superarlo se desalojan los de
+     * clientes menos frecuentes (vuelven con el bucket lleno)
+     */
+    private long maxBuckets = 100_000;
+
+    private Group defaultGroup = new Group();
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+        private List<String> paths = new ArrayList<>();
+        private long capacity = 200;
+        private double refillPerSecond = 100;
+    }
+}
@@ -0,0 +1,131 @@
+package com.app.emsx.ratelimit;
+
+import com.app.emsx.common.PathRule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiter
+ * -----------------------------------------------------
+ * ✔ Resuelve el grupo de la ruta (prefijos, sin parsear la ruta) y consume un
+ *   token del bucket (grupo, cliente)
+ * ✔ Buckets en una caché Caffeine acotada a max-buckets: lecturas sin bloqueo y,
+ *   al llegar al tope, desalojo por frecuencia (los clientes activos se quedan)
+ *   sin trabajo O(n) en el hilo de la petición
+ * ✔ Un bucket lleno no guarda información (recrearlo da el mismo resultado):
+ *   el barrido periódico los quita y la memoria queda en los clientes activos
+ */
+@Component
+public class RateLimiter {
+
+    private static final long SWEEP_SECONDS = 10;
+
+    private record Limit(String name, long capacity, double refillPerSecond) {
+    }
+
+    private record Route(PathRule rule, Limit limit) {
+    }
+
+    private record BucketKey(String group, String client, boolean authenticated) {
+    }
+
+    /**
+     * Datos para las cabeceras RateLimit-* (y Retry-After si se rechazó)
+     */
+    public record Result(boolean allowed, long capacity, long remaining, long resetNanos, long retryAfterNanos) {
+
+        public long resetSeconds() {
+            return ceilSeconds(resetNanos);
+        }
+
+        public long retryAfterSeconds() {
+            return Math.max(1, ceilSeconds(retryAfterNanos));
+        }
+
+        private static long ceilSeconds(long nanos) {
+            return (nanos + 999_999_999L) / 1_000_000_000L;
+        }
+    }
+
+    private final boolean enabled;
+    private final List<Route> routes = new ArrayList<>();
+    private final Limit defaultLimit;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final long origin = System.nanoTime();
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.buckets = Caffeine.newBuilder().maximumSize(properties.getMaxBuckets()).build();
+        for (Map.Entry<String, RateLimitProperties.Group> entry : properties.getGroups().entrySet()) {
+            Limit limit = limit(entry.getKey(), entry.getValue());
+            entry.getValue().getPaths().forEach(path -> routes.add(new Route(PathRule.parse(path), limit)));
+        }
+        this.defaultLimit = limit("default", properties.getDefaultGroup());
+        if (enabled) {
+            sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * ✅ Intenta consumir un token del grupo de la ruta para el cliente
+     * (authenticated distingue un usuario de una IP con el mismo texto)
+     */
+    public Result tryAcquire(String client, boolean authenticated, String method, String path) {
+        Limit limit = resolve(method, path);
+        BucketKey key = new BucketKey(limit.name(), client, authenticated);
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit.capacity(), limit.refillPerSecond()));
+        TokenBucket.Decision decision = bucket.tryAcquire(now());
+        return new Result(decision.allowed(), limit.capacity(), decision.remaining(),
+                decision.resetNanos(), decision.retryAfterNanos());
+    }
+
+    private Limit resolve(String method, String path) {
+        for (Route route : routes) {
+            if (route.rule().matches(method, path)) {
+                return route.limit();
+            }
+        }
+        return defaultLimit;
+    }
+
+    private void sweep() {
+        // Carrera benigna: quien acaba de leer un bucket barrido consume de una copia huérfana
+        long now = now();
+        buckets.asMap().values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    private static Limit limit(String name, RateLimitProperties.Group group) {
+        if (group.getCapacity() < 1 || group.getRefillPerSecond() <= 0) {
+            throw new IllegalArgumentException("emsx.rate-limit: capacity >= 1 y refill-per-second > 0 (grupo " + name + ")");
+        }
+        return new Limit(name, group.getCapacity(), group.getRefillPerSecond());
+    }
+}
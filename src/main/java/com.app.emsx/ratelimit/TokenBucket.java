@@ -0,0 +1,61 @@
+package com.app.emsx.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TokenBucket
+ * -----------------------------------------------------
+ * ✔ Token bucket sin bloqueos en un único AtomicLong (GCRA): guarda el instante
+ *   teórico en que el bucket vuelve a estar lleno y cada petición lo adelanta
+ *   un intervalo con un CAS
+ * ✔ Equivalente a capacity tokens que se reponen a refillPerSecond
+ */
+final class TokenBucket {
+
+    /**
+     * Resultado de un intento: tokens restantes, nanos hasta volver a estar lleno
+     * y, si se rechazó, nanos hasta el próximo token
+     */
+    record Decision(boolean allowed, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+
+    private final long intervalNanos;
+    private final long capacity;
+    private final long burstNanos;
+    private final AtomicLong fullAt = new AtomicLong();
+
+    TokenBucket(long capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    /**
+     * ✅ true si ya se repuso por completo: equivale a un bucket nuevo
+     */
+    boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+
+    /**
+     * ✅ Consume un token si hay; now en nanos de un reloj monótono no negativo
+     */
+    Decision tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long pending = next - now;
+            if (pending > burstNanos) {
+                long waited = Math.max(current, now) - now;
+                return new Decision(false, 0, waited, pending - burstNanos);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return new Decision(true, (burstNanos - pending) / intervalNanos, pending, 0);
+            }
+        }
+    }
+}
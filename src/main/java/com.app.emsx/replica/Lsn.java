@@ -0,0 +1,37 @@
+package com.app.emsx.replica;
+
+/**
+ * Lsn
+ * -----------------------------------------------------
+ * ✔ Posición en el WAL de Postgres (pg_lsn, texto "16/B374D848") como long,
+ *   para compararla sin ida y vuelta a la base
+ */
+public final class Lsn {
+
+    private Lsn() {
+    }
+
+    /**
+     * ✅ Texto pg_lsn → long; IllegalArgumentException si no tiene el formato
+     */
+    public static long parse(String text) {
+        int slash = text.indexOf('/');
+        if (slash <= 0 || slash == text.length() - 1 || text.length() > 17) {
+            throw new IllegalArgumentException("LSN inválido: " + text);
+        }
+        try {
+            long high = Long.parseLong(text.substring(0, slash), 16);
+            long low = Long.parseLong(text.substring(slash + 1), 16);
+            if (high > 0xFFFFFFFFL || low > 0xFFFFFFFFL) {
+                throw new IllegalArgumentException("LSN inválido: " + text);
+            }
+            return (high << 32) | low;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("LSN inválido: " + text, ex);
+        }
+    }
+
+    public static String format(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+}
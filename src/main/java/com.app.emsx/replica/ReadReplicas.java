@@ -0,0 +1,249 @@
+package com.app.emsx.replica;
+
+import com.app.emsx.workload.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReadReplicas
+ * -----------------------------------------------------
+ * ✔ Reparte las transacciones readOnly entre las réplicas sanas (round-robin),
+ *   cada una con sus pools INTERACTIVE y BULK (mismos tamaños y timeouts que el primario)
+ * ✔ Failover: una réplica que no entrega conexión sale de la rotación hasta el próximo
+ *   health check que responda; sin réplicas disponibles se lee del primario
+ * ✔ Read-your-writes: con X-Session-LSN solo sirve una réplica que ya aplicó ese LSN
+ *   (la comprobación va por la misma conexión cuando el último health check no alcanza)
+ * ✔ Lo leído de una réplica no entra en la caché L2 (ReplicaCacheGuard)
+ */
+@Slf4j
+public class ReadReplicas implements AutoCloseable {
+
+    private static final String REPLICA_LSN = "SELECT pg_is_in_recovery(),"
+            + " CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn() ELSE pg_current_wal_lsn() END::text";
+
+    /**
+     * Una réplica con sus pools por workload y el estado del último health check
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final Map<WorkloadType, HikariDataSource> pools;
+        private volatile boolean healthy = true;
+        private volatile long replayLsn;
+
+        public Replica(String name, Map<WorkloadType, HikariDataSource> pools) {
+            this.name = name;
+            this.pools = Collections.unmodifiableMap(new EnumMap<>(pools));
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Map<WorkloadType, HikariDataSource> pools() {
+            return pools;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long replayLsn() {
+            return replayLsn;
+        }
+
+        private void advanceTo(long lsn) {
+            if (lsn > replayLsn) {
+                replayLsn = lsn;
+            }
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final ReplicaProperties properties;
+    private final ReplicaCacheGuard cacheGuard;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ScheduledExecutorService healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "read-replicas-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReadReplicas(List<Replica> replicas, DataSource primary, ReplicaProperties properties,
+                        ReplicaCacheGuard cacheGuard) {
+        this.replicas = List.copyOf(replicas);
+        this.primary = primary;
+        this.properties = properties;
+        this.cacheGuard = cacheGuard;
+        if (!this.replicas.isEmpty()) {
+            healthCheck.scheduleWithFixedDelay(this::checkHealth, 0, properties.getHealthCheckMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.pools().values().forEach(HikariDataSource::close));
+    }
+
+    public boolean isEnabled() {
+        return !replicas.isEmpty();
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * ✅ Conexión de una réplica para ese workload, o null si ninguna puede atenderla
+     * (el llamador la pide entonces al primario)
+     */
+    public Connection getConnection(WorkloadType workload) {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        Long required = properties.isReadYourWrites() ? SessionLsn.current() : null;
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            HikariDataSource pool = replica.pools().get(workload);
+            if (pool == null || !replica.isHealthy()) {
+                continue;
+            }
+            Connection connection;
+            try {
+                connection = pool.getConnection();
+            } catch (SQLException ex) {
+                markDown(replica, ex);
+                continue;
+            }
+            if (required == null || required <= replica.replayLsn() || caughtUp(replica, connection, required)) {
+                cacheGuard.onReplicaConnection();
+                return connection;
+            }
+            closeQuietly(connection);
+        }
+        return null;
+    }
+
+    /**
+     * ✅ Llamado al entregar una conexión del primario: si la transacción escribe y viene
+     * de una petición HTTP, tras el commit la respuesta lleva X-Session-LSN
+     */
+    public void onPrimaryConnection(Connection connection) {
+        if (replicas.isEmpty() || !properties.isReadYourWrites()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (response.isCommitted()) {
+                    return;
+                }
+                // Misma conexión, ya en autocommit: el LSN actual cubre el commit recién hecho
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+                    if (rs.next()) {
+                        response.setHeader(SessionLsn.HEADER, rs.getString(1));
+                    }
+                } catch (SQLException ex) {
+                    log.debug("No se pudo leer el LSN del commit para {}", SessionLsn.HEADER, ex);
+                }
+            }
+        });
+    }
+
+    private boolean caughtUp(Replica replica, Connection connection, long required) {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(REPLICA_LSN)) {
+            if (rs.next() && rs.getString(2) != null) {
+                replica.advanceTo(Lsn.parse(rs.getString(2)));
+            }
+        } catch (SQLException ex) {
+            markDown(replica, ex);
+            return false;
+        }
+        return required <= replica.replayLsn();
+    }
+
+    private void checkHealth() {
+        Long primaryLsn = null;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            if (rs.next()) {
+                primaryLsn = Lsn.parse(rs.getString(1));
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Health check de réplicas sin LSN del primario", ex);
+        }
+        for (Replica replica : replicas) {
+            checkHealth(replica, primaryLsn);
+        }
+    }
+
+    private void checkHealth(Replica replica, Long primaryLsn) {
+        try (Connection connection = replica.pools().get(WorkloadType.INTERACTIVE).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(REPLICA_LSN)) {
+            if (!rs.next() || rs.getString(2) == null) {
+                throw new SQLException("La réplica no informó su LSN");
+            }
+            long lsn = Lsn.parse(rs.getString(2));
+            replica.advanceTo(lsn);
+            long lag = primaryLsn != null ? Math.max(0, primaryLsn - lsn) : 0;
+            boolean healthy = lag <= properties.getMaxLagBytes();
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Réplica {} de nuevo en rotación", replica.name());
+                } else {
+                    log.warn("Réplica {} fuera de rotación: {} bytes de WAL detrás del primario", replica.name(), lag);
+                }
+                replica.healthy = healthy;
+            }
+        } catch (SQLException | RuntimeException ex) {
+            markDown(replica, ex);
+        }
+    }
+
+    private void markDown(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Réplica {} fuera de rotación: {}", replica.name(), cause.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            // conexión devuelta al pool de todos modos
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.app.emsx.replica;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ReplicaCacheGuard
+ * -----------------------------------------------------
+ * ✔ Una sesión que lee de una réplica puede consultar la caché L2 pero no escribir en ella
+ *   (CacheMode.GET = storeMode BYPASS, también para la caché de consultas): una réplica
+ *   atrasada dejaría filas viejas cacheadas para todos los clientes hasta el TTL,
+ *   sin pasar nunca más por el chequeo de X-Session-LSN
+ * ✔ Con open-in-view la sesión sigue viva tras la transacción: al terminar se restaura
+ *   el modo anterior
+ */
+public class ReplicaCacheGuard {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public ReplicaCacheGuard(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * ✅ Llamado al entregar una conexión de réplica, antes de la primera lectura
+     */
+    public void onReplicaConnection() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null
+                || !(TransactionSynchronizationManager.getResource(factory) instanceof EntityManagerHolder holder)) {
+            return;
+        }
+        Session session = holder.getEntityManager().unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        if (!previous.isPutEnabled()) {
+            return;
+        }
+        session.setCacheMode(CacheMode.GET);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (session.isOpen()) {
+                        session.setCacheMode(previous);
+                    }
+                }
+            });
+        }
+    }
+}
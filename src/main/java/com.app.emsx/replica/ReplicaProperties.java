@@ -0,0 +1,35 @@
+package com.app.emsx.replica;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplicaProperties
+ * -----------------------------------------------------
+ * ✔ Réplicas de lectura (emsx.replicas.urls: JDBC URLs, mismas credenciales que
+ *   spring.datasource); sin URLs todo se lee del primario
+ * ✔ Una réplica sale de la rotación si no responde al health check o si su
+ *   replay queda más de max-lag-bytes detrás del primario
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "emsx.replicas")
+public class ReplicaProperties {
+
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Devuelve X-Session-LSN tras cada escritura y lo respeta en las lecturas
+     */
+    private boolean readYourWrites = true;
+
+    private long healthCheckMs = 1_000;
+
+    private long maxLagBytes = 16 * 1024 * 1024;
+
+    private long connectionTimeoutMs = 2_000;
+}
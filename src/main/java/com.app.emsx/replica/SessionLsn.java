@@ -0,0 +1,49 @@
+package com.app.emsx.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * SessionLsn
+ * -----------------------------------------------------
+ * ✔ Read-your-writes: LSN mínimo que debe haber aplicado una réplica para
+ *   atender las lecturas del hilo en curso (header X-Session-LSN de la petición)
+ * ✔ Tras una escritura la respuesta trae el mismo header con el LSN del commit;
+ *   el cliente que lo reenvía nunca lee un estado anterior a su propia escritura
+ */
+public final class SessionLsn {
+
+    public static final String HEADER = "X-Session-LSN";
+
+    private static final ThreadLocal<Long> REQUIRED = new ThreadLocal<>();
+
+    private SessionLsn() {
+    }
+
+    /**
+     * LSN exigido a las réplicas, o null si el hilo no pide consistencia
+     */
+    public static Long current() {
+        return REQUIRED.get();
+    }
+
+    /**
+     * ✅ Ejecuta work exigiendo ese LSN (para trabajo que sigue fuera del hilo de la petición)
+     */
+    public static <T> T call(Long lsn, Supplier<T> work) {
+        Long previous = REQUIRED.get();
+        set(lsn);
+        try {
+            return work.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    static void set(Long lsn) {
+        if (lsn == null) {
+            REQUIRED.remove();
+        } else {
+            REQUIRED.set(lsn);
+        }
+    }
+}
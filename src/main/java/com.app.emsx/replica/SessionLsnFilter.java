@@ -0,0 +1,48 @@
+package com.app.emsx.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * SessionLsnFilter
+ * -----------------------------------------------------
+ * ✔ Toma el header X-Session-LSN de la petición y lo deja en SessionLsn
+ *   mientras dura (un valor mal formado se ignora: lectura sin exigencia)
+ */
+@Slf4j
+@Component
+public class SessionLsnFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String header = request.getHeader(SessionLsn.HEADER);
+        if (header == null || header.isBlank()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Long required = null;
+        try {
+            required = Lsn.parse(header.trim());
+        } catch (IllegalArgumentException ex) {
+            log.debug("Header {} ignorado: {}", SessionLsn.HEADER, ex.getMessage());
+        }
+        SessionLsn.set(required);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SessionLsn.set(null);
+        }
+    }
+}
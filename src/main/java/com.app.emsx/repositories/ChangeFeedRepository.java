@@ -0,0 +1,79 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.sync.ChangeCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * ChangeFeedRepository
+ * -----------------------------------------------------
+ * ✔ Ids cambiados desde un cursor, en orden (seq, id), a partir de change_seq
+ *   y de change_tombstones (ver db/change-tracking.sql)
+ * ✔ El seq de un recurso es el mayor de su fila y de la fila que embebe
+ *   su respuesta (stock del producto, envío de la orden, orden del envío)
+ * ✔ Solo ve cambios bajo el horizonte: ids de transacción ya terminadas
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeFeedRepository {
+
+    public enum Feed {
+        PRODUCTS("SELECT p.id, GREATEST(p.change_seq, COALESCE(s.change_seq, 0)) AS seq, "
+                + "p.status = 'INACTIVE' AS deleted "
+                + "FROM products p LEFT JOIN stocks s ON s.product_id = p.id "
+                + "WHERE p.id IN (SELECT id FROM products WHERE change_seq >= :from AND change_seq < :horizon "
+                + "UNION SELECT product_id FROM stocks WHERE change_seq >= :from AND change_seq < :horizon)"),
+        ORDERS("SELECT o.id, GREATEST(o.change_seq, COALESCE(sh.change_seq, 0)) AS seq, false AS deleted "
+                + "FROM orders o LEFT JOIN shipments sh ON sh.order_id = o.id "
+                + "WHERE o.id IN (SELECT id FROM orders WHERE change_seq >= :from AND change_seq < :horizon "
+                + "UNION SELECT order_id FROM shipments WHERE change_seq >= :from AND change_seq < :horizon) "
+                + "UNION ALL " + tombstones("orders")),
+        SHIPMENTS("SELECT sh.id, GREATEST(sh.change_seq, o.change_seq) AS seq, false AS deleted "
+                + "FROM shipments sh JOIN orders o ON o.id = sh.order_id "
+                + "WHERE sh.id IN (SELECT id FROM shipments WHERE change_seq >= :from AND change_seq < :horizon "
+                + "UNION SELECT sh2.id FROM orders o2 JOIN shipments sh2 ON sh2.order_id = o2.id "
+                + "WHERE o2.change_seq >= :from AND o2.change_seq < :horizon) "
+                + "UNION ALL " + tombstones("shipments"));
+
+        private final String sql;
+
+        Feed(String candidates) {
+            this.sql = "SELECT id, seq, deleted FROM (" + candidates + ") c "
+                    + "WHERE seq < :horizon AND (seq, id) > (:from, :afterId) "
+                    + "ORDER BY seq, id LIMIT :limit";
+        }
+
+        private static String tombstones(String resource) {
+            return "SELECT entity_id, change_seq, true FROM change_tombstones "
+                    + "WHERE resource = '" + resource + "' AND change_seq >= :from AND change_seq < :horizon";
+        }
+    }
+
+    public record Change(long id, long seq, boolean deleted) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * ✅ Menor id de transacción aún en curso: todo cambio por debajo ya es visible
+     * y ninguno nuevo puede aparecer por debajo
+     */
+    public long horizon() {
+        return jdbcTemplate.getJdbcTemplate()
+                .queryForObject("SELECT txid_snapshot_xmin(txid_current_snapshot())", Long.class);
+    }
+
+    public List<Change> changes(Feed feed, ChangeCursor after, long horizon, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", after.seq())
+                .addValue("afterId", after.id())
+                .addValue("horizon", horizon)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(feed.sql, params,
+                (rs, rowNum) -> new Change(rs.getLong("id"), rs.getLong("seq"), rs.getBoolean("deleted")));
+    }
+}
@@ -0,0 +1,114 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.common.EntityStreams;
+import com.app.emsx.dtos.customer.CustomerResponse;
+import com.app.emsx.entities.Order;
+import com.app.emsx.fields.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * CustomerFieldsRepository
+ * -----------------------------------------------------
+ * ✔ Lecturas de clientes con ?fields=: proyecciones escalares directas al DTO
+ * ✔ Las órdenes solo se consultan si se piden, con una consulta IN por bloque de clientes
+ *   (sin el producto cartesiano del JOIN FETCH de la lectura completa)
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerFieldsRepository {
+
+    private static final int ORDERS_BATCH = 500;
+
+    private static final String CUSTOMER_QUERY = "SELECT c.id AS id, c.name AS name, c.email AS email, "
+            + "c.phone AS phone, c.address AS address FROM Customer c";
+
+    private static final String ORDERS_QUERY = "SELECT o.customer.id AS customerId, o.id AS orderId, "
+            + "o.date AS orderDate, o.status AS orderStatus, o.total AS orderTotal "
+            + "FROM Order o WHERE o.customer.id IN :customerIds ORDER BY o.id";
+
+    private final EntityManager entityManager;
+
+    public Optional<CustomerResponse> findById(Long id, FieldSet fields) {
+        return findAllById(List.of(id), fields).stream().findFirst();
+    }
+
+    /**
+     * Clientes existentes entre los ids pedidos (sin orden garantizado respecto de ids)
+     */
+    public List<CustomerResponse> findAllById(Collection<Long> ids, FieldSet fields) {
+        List<CustomerResponse> customers = query(" WHERE c.id IN :ids")
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .map(this::toResponse)
+                .toList();
+        return withOrders(customers, fields);
+    }
+
+    /**
+     * Cursor de base de datos: consumir dentro de la transacción del llamador
+     */
+    public Stream<CustomerResponse> streamAll(FieldSet fields) {
+        Stream<CustomerResponse> customers = query(" ORDER BY c.id")
+                .setHint(AvailableHints.HINT_FETCH_SIZE, 500)
+                .getResultStream()
+                .map(this::toResponse);
+        if (!fields.includes("orders")) {
+            return customers;
+        }
+        return EntityStreams.chunked(customers, ORDERS_BATCH)
+                .flatMap(chunk -> withOrders(chunk, fields).stream());
+    }
+
+    private TypedQuery<Tuple> query(String suffix) {
+        return entityManager.createQuery(CUSTOMER_QUERY + suffix, Tuple.class);
+    }
+
+    private CustomerResponse toResponse(Tuple row) {
+        return CustomerResponse.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .phone(row.get("phone", String.class))
+                .address(row.get("address", String.class))
+                .build();
+    }
+
+    private List<CustomerResponse> withOrders(List<CustomerResponse> customers, FieldSet fields) {
+        if (!fields.includes("orders") || customers.isEmpty()) {
+            return customers;
+        }
+        Map<Long, CustomerResponse> byId = customers.stream()
+                .collect(Collectors.toMap(CustomerResponse::getId, Function.identity()));
+        customers.forEach(customer -> customer.setOrders(new ArrayList<>()));
+        for (Tuple row : entityManager.createQuery(ORDERS_QUERY, Tuple.class)
+                .setParameter("customerIds", byId.keySet())
+                .getResultList()) {
+            LocalDateTime date = row.get("orderDate", LocalDateTime.class);
+            Order.OrderStatus status = row.get("orderStatus", Order.OrderStatus.class);
+            BigDecimal total = row.get("orderTotal", BigDecimal.class);
+            byId.get(row.get("customerId", Long.class)).getOrders().add(CustomerResponse.OrderSummary.builder()
+                    .id(row.get("orderId", Long.class))
+                    .date(date != null ? date.toString() : null)
+                    .status(status != null ? status.name() : null)
+                    .total(total != null ? total.toString() : null)
+                    .build());
+        }
+        return customers;
+    }
+}
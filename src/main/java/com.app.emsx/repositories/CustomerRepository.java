@@ -1,20 +1,24 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     boolean existsByEmail(String email);
     
-    @Query("SELECT DISTINCT c FROM Customer c LEFT JOIN FETCH c.orders")
-    List<Customer> findAllWithOrders();
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.orders ORDER BY c.id")
+    Stream<Customer> streamAllWithOrders();
     
     @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.orders WHERE c.id = :id")
     Optional<Customer> findByIdWithOrders(Long id);
@@ -0,0 +1,147 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.common.EntityStreams;
+import com.app.emsx.dtos.order.OrderResponse;
+import com.app.emsx.entities.Order;
+import com.app.emsx.entities.Shipment;
+import com.app.emsx.fields.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * OrderFieldsRepository
+ * -----------------------------------------------------
+ * ✔ Lecturas de órdenes con ?fields=: proyecciones escalares directas al DTO
+ * ✔ Cliente y envío solo entran en el JOIN si el FieldSet los pide; los ítems
+ *   (con su producto) se cargan con una consulta IN por bloque de órdenes
+ * ✔ No materializa entidades Order: shipment es el lado inverso de un @OneToOne
+ *   y Hibernate lo consultaría siempre, se haya pedido o no
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderFieldsRepository {
+
+    private static final int ITEMS_BATCH = 500;
+
+    private static final String ITEMS_QUERY = "SELECT oi.order.id AS orderId, oi.id AS itemId, "
+            + "oi.quantity AS quantity, oi.subtotal AS subtotal, p.id AS productId, p.name AS productName, "
+            + "p.sku AS productSku, p.price AS productPrice "
+            + "FROM OrderItem oi JOIN oi.product p WHERE oi.order.id IN :orderIds ORDER BY oi.id";
+
+    private final EntityManager entityManager;
+
+    public Optional<OrderResponse> findById(Long id, FieldSet fields) {
+        return findAllById(List.of(id), fields).stream().findFirst();
+    }
+
+    /**
+     * Órdenes existentes entre los ids pedidos (sin orden garantizado respecto de ids)
+     */
+    public List<OrderResponse> findAllById(Collection<Long> ids, FieldSet fields) {
+        List<OrderResponse> orders = query(fields, " WHERE o.id IN :ids")
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .map(row -> toResponse(row, fields))
+                .toList();
+        return withItems(orders, fields);
+    }
+
+    /**
+     * Cursor de base de datos: consumir dentro de la transacción del llamador
+     */
+    public Stream<OrderResponse> streamAll(FieldSet fields) {
+        Stream<OrderResponse> orders = query(fields, "")
+                .setHint(AvailableHints.HINT_FETCH_SIZE, 500)
+                .getResultStream()
+                .map(row -> toResponse(row, fields));
+        if (!fields.includes("items")) {
+            return orders;
+        }
+        return EntityStreams.chunked(orders, ITEMS_BATCH)
+                .flatMap(chunk -> withItems(chunk, fields).stream());
+    }
+
+    private TypedQuery<Tuple> query(FieldSet fields, String where) {
+        StringBuilder select = new StringBuilder(
+                "SELECT o.id AS id, o.date AS orderDate, o.status AS orderStatus, o.total AS orderTotal");
+        StringBuilder from = new StringBuilder(" FROM Order o");
+        if (fields.includes("customer")) {
+            select.append(", c.id AS customerId, c.name AS customerName, c.email AS customerEmail");
+            from.append(" JOIN o.customer c");
+        }
+        if (fields.includes("shipment")) {
+            select.append(", sh.id AS shipmentId, sh.trackingCode AS trackingCode, "
+                    + "sh.status AS shipmentStatus, sh.carrier AS carrier");
+            from.append(" LEFT JOIN o.shipment sh");
+        }
+        String jpql = select.append(from).append(where).append(" ORDER BY o.id").toString();
+        return entityManager.createQuery(jpql, Tuple.class);
+    }
+
+    private OrderResponse toResponse(Tuple row, FieldSet fields) {
+        Order.OrderStatus status = row.get("orderStatus", Order.OrderStatus.class);
+        OrderResponse.OrderResponseBuilder builder = OrderResponse.builder()
+                .id(row.get("id", Long.class))
+                .date(row.get("orderDate", LocalDateTime.class))
+                .status(status != null ? status.name() : null)
+                .total(row.get("orderTotal", BigDecimal.class));
+        if (fields.includes("customer")) {
+            builder.customer(OrderResponse.CustomerInfo.builder()
+                    .id(row.get("customerId", Long.class))
+                    .name(row.get("customerName", String.class))
+                    .email(row.get("customerEmail", String.class))
+                    .build());
+        }
+        Long shipmentId = fields.includes("shipment") ? row.get("shipmentId", Long.class) : null;
+        if (shipmentId != null) {
+            Shipment.ShipmentStatus shipmentStatus = row.get("shipmentStatus", Shipment.ShipmentStatus.class);
+            builder.shipment(OrderResponse.ShipmentInfo.builder()
+                    .id(shipmentId)
+                    .trackingCode(row.get("trackingCode", String.class))
+                    .status(shipmentStatus != null ? shipmentStatus.name() : null)
+                    .carrier(row.get("carrier", String.class))
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private List<OrderResponse> withItems(List<OrderResponse> orders, FieldSet fields) {
+        if (!fields.includes("items") || orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, OrderResponse> byId = orders.stream()
+                .collect(Collectors.toMap(OrderResponse::getId, Function.identity()));
+        orders.forEach(order -> order.setItems(new ArrayList<>()));
+        for (Tuple row : entityManager.createQuery(ITEMS_QUERY, Tuple.class)
+                .setParameter("orderIds", byId.keySet())
+                .getResultList()) {
+            byId.get(row.get("orderId", Long.class)).getItems().add(OrderResponse.OrderItemInfo.builder()
+                    .id(row.get("itemId", Long.class))
+                    .quantity(row.get("quantity", Integer.class))
+                    .subtotal(row.get("subtotal", BigDecimal.class))
+                    .product(OrderResponse.OrderItemInfo.ProductInfo.builder()
+                            .id(row.get("productId", Long.class))
+                            .name(row.get("productName", String.class))
+                            .sku(row.get("productSku", String.class))
+                            .price(row.get("productPrice", BigDecimal.class))
+                            .build())
+                    .build());
+        }
+        return orders;
+    }
+}
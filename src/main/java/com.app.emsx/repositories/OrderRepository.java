@@ -1,13 +1,17 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -16,11 +20,30 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product LEFT JOIN FETCH o.customer LEFT JOIN FETCH o.shipment WHERE o.customer.id = :customerId ORDER BY o.date DESC")
     List<Order> findOrderHistoryByCustomerId(@Param("customerId") Long customerId);
     
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product LEFT JOIN FETCH o.customer LEFT JOIN FETCH o.shipment")
-    List<Order> findAllWithRelations();
+    // Ordenado por id: Hibernate agrupa las filas del fetch de ítems por orden mientras recorre el cursor
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product LEFT JOIN FETCH o.customer LEFT JOIN FETCH o.shipment ORDER BY o.id")
+    Stream<Order> streamAllWithRelations();
     
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product LEFT JOIN FETCH o.customer LEFT JOIN FETCH o.shipment WHERE o.id = :id")
     Optional<Order> findByIdWithRelations(@Param("id") Long id);
+
+    @Query("SELECT o.version AS orderVersion, c.version AS customerVersion, "
+            + "sh.id AS shipmentId, sh.version AS shipmentVersion, "
+            + "COUNT(oi) AS items, COALESCE(SUM(p.version), 0) AS productVersions "
+            + "FROM Order o JOIN o.customer c LEFT JOIN o.shipment sh "
+            + "LEFT JOIN o.orderItems oi LEFT JOIN oi.product p "
+            + "WHERE o.id = :id GROUP BY o.version, c.version, sh.id, sh.version")
+    Optional<OrderVersion> findVersionById(@Param("id") Long id);
+
+    interface OrderVersion {
+        Long getOrderVersion();
+        Long getCustomerVersion();
+        Long getShipmentId();
+        Long getShipmentVersion();
+        Long getItems();
+        Long getProductVersions();
+    }
 }
 
 
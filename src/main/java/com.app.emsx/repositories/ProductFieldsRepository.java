@@ -0,0 +1,105 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.entities.Product;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.mappers.ProductMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ProductFieldsRepository
+ * -----------------------------------------------------
+ * ✔ Lecturas de productos con ?fields=: proyecciones escalares directas al DTO
+ * ✔ El stock solo entra en el JOIN si se pide (o si el filtro lo necesita: /available)
+ * ✔ No materializa entidades Product: stock es el lado inverso de un @OneToOne
+ *   y Hibernate lo consultaría siempre, se haya pedido o no
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductFieldsRepository {
+
+    private static final String ACTIVE = "p.status = com.app.emsx.entities.Product.ProductStatus.ACTIVE";
+
+    private final EntityManager entityManager;
+
+    public Optional<ProductResponse> findActiveById(Long id, FieldSet fields) {
+        return findActiveByIds(List.of(id), fields).stream().findFirst();
+    }
+
+    /**
+     * Productos activos entre los ids pedidos (sin orden garantizado respecto de ids)
+     */
+    public List<ProductResponse> findActiveByIds(Collection<Long> ids, FieldSet fields) {
+        return query(fields, false, " WHERE p.id IN :ids AND " + ACTIVE)
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .map(row -> toResponse(row, fields))
+                .toList();
+    }
+
+    /*
+     * Los stream* devuelven un cursor de base de datos: consumir dentro de la transacción del llamador
+     */
+    public Stream<ProductResponse> streamAll(FieldSet fields) {
+        return stream(query(fields, false, ""), fields);
+    }
+
+    public Stream<ProductResponse> streamByCategory(String category, FieldSet fields) {
+        return stream(query(fields, false, " WHERE p.category = :category")
+                .setParameter("category", category), fields);
+    }
+
+    public Stream<ProductResponse> streamAvailable(FieldSet fields) {
+        return stream(query(fields, true, " WHERE " + ACTIVE + " AND s.quantity - s.reservedQuantity > 0"), fields);
+    }
+
+    private Stream<ProductResponse> stream(TypedQuery<Tuple> query, FieldSet fields) {
+        return query.setHint(AvailableHints.HINT_FETCH_SIZE, 500)
+                .getResultStream()
+                .map(row -> toResponse(row, fields));
+    }
+
+    private TypedQuery<Tuple> query(FieldSet fields, boolean requireStock, String where) {
+        StringBuilder jpql = new StringBuilder("SELECT p.id AS id, p.name AS name, p.description AS description, "
+                + "p.price AS price, p.category AS category, p.sku AS sku, p.status AS status");
+        if (fields.includes("stock")) {
+            jpql.append(", s.id AS stockId, s.quantity AS quantity, s.reservedQuantity AS reservedQuantity");
+        }
+        jpql.append(" FROM Product p");
+        if (requireStock) {
+            jpql.append(" JOIN p.stock s");
+        } else if (fields.includes("stock")) {
+            jpql.append(" LEFT JOIN p.stock s");
+        }
+        jpql.append(where).append(" ORDER BY p.id");
+        return entityManager.createQuery(jpql.toString(), Tuple.class);
+    }
+
+    private ProductResponse toResponse(Tuple row, FieldSet fields) {
+        Product.ProductStatus status = row.get("status", Product.ProductStatus.class);
+        ProductResponse.ProductResponseBuilder builder = ProductResponse.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .category(row.get("category", String.class))
+                .sku(row.get("sku", String.class))
+                .status(status != null ? status.name() : Product.ProductStatus.ACTIVE.name());
+        if (fields.includes("stock") && row.get("stockId") != null) {
+            builder.stock(ProductMapper.toStockInfo(row.get("quantity", Integer.class),
+                    row.get("reservedQuantity", Integer.class)));
+        }
+        return builder.build();
+    }
+}
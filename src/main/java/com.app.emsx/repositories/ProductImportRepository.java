@@ -0,0 +1,210 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.dtos.product.ProductRequest;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ProductImportRepository
+ * -----------------------------------------------------
+ * ✔ Carga masiva de productos con el protocolo COPY de PostgreSQL
+ * ✔ Las filas se copian a una tabla temporal (staging) y luego se fusionan
+ *   en products / stocks con semántica de upsert por SKU
+ * ✔ Un SKU repetido queda con una sola fila en staging: la última del archivo.
+ *   Las filas rechazadas con SKU legible se copian como marca (rejected): si la
+ *   última fila de un SKU fue rechazada, ninguna anterior se aplica en su lugar
+ * ✔ Debe usarse dentro de una transacción (la tabla temporal es ON COMMIT DROP)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+
+    private static final String STAGING_TABLE = "product_import_staging";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public void createStagingTable() {
+        jdbcTemplate.execute("CREATE TEMP TABLE IF NOT EXISTS " + STAGING_TABLE + " ("
+                + "row_no bigint NOT NULL, "
+                + "name text, "
+                + "description text, "
+                + "price numeric(10,2), "
+                + "category text, "
+                + "sku text NOT NULL, "
+                + "quantity integer, "
+                + "rejected boolean NOT NULL"
+                + ") ON COMMIT DROP");
+    }
+
+    /**
+     * ✅ Abre un COPY ... FROM STDIN sobre la conexión de la transacción actual
+     */
+    public StagingWriter openStagingWriter() throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                "COPY " + STAGING_TABLE + " (row_no, name, description, price, category, sku, quantity, rejected) "
+                        + "FROM STDIN WITH (FORMAT csv)");
+        return new StagingWriter(copyIn);
+    }
+
+    /**
+     * ✅ Deja en staging solo la última fila de cada SKU y quita las marcas de filas rechazadas
+     *
+     * Reporta cada fila válida descartada con (row_no, sku, fila que la reemplaza, si esa fila fue rechazada)
+     */
+    public void dropSupersededRows(RowCallbackHandler superseded) {
+        jdbcTemplate.execute("ANALYZE " + STAGING_TABLE);
+        jdbcTemplate.query("WITH latest AS ("
+                + "  SELECT DISTINCT ON (sku) sku, row_no, rejected"
+                + "  FROM " + STAGING_TABLE + " ORDER BY sku, row_no DESC"
+                + "), dropped AS ("
+                + "  DELETE FROM " + STAGING_TABLE + " s USING latest l"
+                + "  WHERE s.sku = l.sku AND (s.row_no < l.row_no OR s.rejected)"
+                + "  RETURNING s.row_no, s.sku, s.rejected, l.row_no AS latest_row, l.rejected AS latest_rejected"
+                + ") "
+                + "SELECT row_no, sku, latest_row, latest_rejected FROM dropped WHERE NOT rejected ORDER BY row_no",
+                superseded);
+    }
+
+    /**
+     * ✅ Descarta (y reporta) las filas cuyo stock nuevo quedaría por debajo del reservado
+     */
+    public void rejectBelowReserved(RowCallbackHandler rejected) {
+        jdbcTemplate.query("DELETE FROM " + STAGING_TABLE + " s "
+                + "USING products p JOIN stocks st ON st.product_id = p.id "
+                + "WHERE p.sku = s.sku AND s.quantity < st.reserved_quantity "
+                + "RETURNING s.row_no, s.sku, st.reserved_quantity", rejected);
+    }
+
+    /**
+     * ✅ Upsert de productos por SKU (staging ya tiene una fila por SKU: ver dropSupersededRows)
+     * ✅ Un producto importado queda ACTIVE aunque estuviera dado de baja
+     *
+     * @return {creados, actualizados}
+     */
+    public long[] mergeProducts() {
+        return jdbcTemplate.queryForObject("WITH merged AS ("
+                        + "  INSERT INTO products (name, description, price, category, sku, status)"
+                        + "  SELECT name, description, price, category, sku, 'ACTIVE' FROM " + STAGING_TABLE
+                        + "  ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description,"
+                        + "    price = EXCLUDED.price, category = EXCLUDED.category, status = EXCLUDED.status,"
+                        + "    version = products.version + 1"
+                        + "  RETURNING (xmax = 0) AS inserted"
+                        + ") "
+                        + "SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM merged",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * ✅ Upsert de stock por producto respetando quantity >= reserved_quantity
+     */
+    public int mergeStocks() {
+        return jdbcTemplate.update("INSERT INTO stocks (product_id, quantity, reserved_quantity) "
+                + "SELECT p.id, s.quantity, 0 "
+                + "FROM " + STAGING_TABLE + " s "
+                + "JOIN products p ON p.sku = s.sku "
+                + "ON CONFLICT (product_id) DO UPDATE SET quantity = EXCLUDED.quantity, version = stocks.version + 1 "
+                + "WHERE EXCLUDED.quantity >= stocks.reserved_quantity");
+    }
+
+    /**
+     * StagingWriter
+     * -----------------------------------------------------
+     * ✔ Serializa filas en formato CSV de COPY y las envía en bloques de tamaño fijo
+     * ✔ La memoria usada es la del buffer, independiente del tamaño del archivo
+     */
+    public static class StagingWriter implements AutoCloseable {
+
+        private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+        private long rows;
+        private boolean finished;
+
+        private StagingWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        public void write(long rowNumber, ProductRequest request) throws SQLException {
+            buffer.append(rowNumber).append(',');
+            appendQuoted(request.getName()).append(',');
+            appendQuoted(request.getDescription()).append(',');
+            buffer.append(request.getPrice().toPlainString()).append(',');
+            appendQuoted(request.getCategory()).append(',');
+            appendQuoted(request.getSku()).append(',');
+            buffer.append(request.getInitialStock()).append(",false\n");
+            rows++;
+            if (buffer.length() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+
+        /**
+         * Marca de fila rechazada: solo row_no y SKU, para que no gane una fila anterior del mismo SKU
+         */
+        public void writeRejected(long rowNumber, String sku) throws SQLException {
+            buffer.append(rowNumber).append(",,,,,");
+            appendQuoted(sku).append(",,true\n");
+            if (buffer.length() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Cierra el COPY y devuelve la cantidad de filas cargadas en staging
+         */
+        public long finish() throws SQLException {
+            flush();
+            finished = true;
+            return copyIn.endCopy();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!finished && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        private StringBuilder appendQuoted(String value) {
+            // En CSV de COPY un campo vacío sin comillas es NULL
+            if (value == null) {
+                return buffer;
+            }
+            buffer.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            return buffer.append('"');
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
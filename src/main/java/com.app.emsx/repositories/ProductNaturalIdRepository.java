@@ -0,0 +1,18 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.entities.Product;
+
+import java.util.Optional;
+
+/**
+ * ProductNaturalIdRepository
+ * -----------------------------------------------------
+ * ✔ Búsqueda de productos por SKU usando el natural-id de Hibernate
+ * ✔ Resuelve desde la caché de segundo nivel sin consultar la base de datos
+ */
+public interface ProductNaturalIdRepository {
+
+    Optional<Product> findBySku(String sku);
+
+    boolean existsBySku(String sku);
+}
@@ -0,0 +1,31 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.entities.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+class ProductNaturalIdRepositoryImpl implements ProductNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Product> findBySku(String sku) {
+        if (sku == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Product.class)
+                .loadOptional(sku);
+    }
+
+    @Override
+    public boolean existsBySku(String sku) {
+        return findBySku(sku).isPresent();
+    }
+}
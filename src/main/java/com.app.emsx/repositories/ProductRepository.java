@@ -1,25 +1,70 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    Optional<Product> findBySku(String sku);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductNaturalIdRepository {
     List<Product> findByCategory(String category);
-    boolean existsBySku(String sku);
     
-    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.stock")
+    // Recorrido completo (índices y snapshot): no debe desplazar las entradas útiles de la caché L2.
+    // Por id, como GET /api/products: el snapshot sirve exactamente ese cuerpo
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.stock ORDER BY p.id")
     List<Product> findAllWithStock();
     
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.stock WHERE p.id = :id")
     Optional<Product> findByIdWithStock(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.stock ORDER BY p.id")
+    Stream<Product> streamAllWithStock();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.stock WHERE p.category = :category ORDER BY p.id")
+    Stream<Product> streamByCategoryWithStock(@Param("category") String category);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p JOIN FETCH p.stock s "
+            + "WHERE p.status = com.app.emsx.entities.Product.ProductStatus.ACTIVE "
+            + "AND s.quantity - s.reservedQuantity > 0 ORDER BY p.id")
+    Stream<Product> streamAvailableWithStock();
+
+    @Query("SELECT p.version AS productVersion, s.id AS stockId, s.version AS stockVersion "
+            + "FROM Product p LEFT JOIN p.stock s WHERE p.id = :id AND p.status = com.app.emsx.entities.Product.ProductStatus.ACTIVE")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+
+    // max(change_seq) sale de los índices de change_seq, sin recorrer las tablas.
+    // Por debajo del horizonte de ChangeFeed (xmin) ya no puede aparecer ningún cambio: ahí basta
+    // el máximo. Si el máximo no está por debajo, una transacción más vieja aún abierta podría
+    // confirmar sin moverlo, y la versión incluye el horizonte hasta que lo pase
+    @Query(value = "SELECT m.seq AS seq, CASE WHEN m.seq >= h.xmin THEN h.xmin END AS horizon "
+            + "FROM (SELECT GREATEST((SELECT max(change_seq) FROM products), "
+            + "(SELECT max(change_seq) FROM stocks)) AS seq) m, "
+            + "(SELECT txid_snapshot_xmin(txid_current_snapshot()) AS xmin) h", nativeQuery = true)
+    CatalogVersion findCatalogVersion();
+
+    interface ProductVersion {
+        Long getProductVersion();
+        Long getStockId();
+        Long getStockVersion();
+    }
+
+    // horizon = null cuando todos los cambios del catálogo están por debajo del horizonte
+    interface CatalogVersion {
+        Long getSeq();
+        Long getHorizon();
+    }
 }
 
 
@@ -0,0 +1,157 @@
+package com.app.emsx.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShipmentEventRepository
+ * -----------------------------------------------------
+ * ✔ Aplica un bloque de eventos de transportista con una sola sentencia:
+ *   unnest(...) → envío por tracking code → último evento vigente por envío
+ *   → UPDATE shipments / UPDATE orders
+ * ✔ Cada evento aceptado de un envío actualizado entra en su historial
+ *   (shipment_tracking_events), también los superados dentro del mismo lote
+ * ✔ Equivale a aplicar los eventos de cada envío en orden de occurredAt:
+ *   - los anteriores a shipments.last_event_at se descartan (STALE)
+ *   - RETURNED solo vale si la orden está CONFIRMED; el primero que vale la pasa
+ *     a CANCELLED y cierra el envío: todo evento posterior del lote es rechazado,
+ *     igual que cualquier evento para un envío que ya estaba RETURNED
+ *   - el envío queda con el estado del último evento aceptado
+ * ✔ last_event_at se re-chequea en el WHERE del UPDATE (fila vigente) ante lotes concurrentes;
+ *   la orden solo se cancela si ese UPDATE dejó el envío en RETURNED
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShipmentEventRepository {
+
+    private static final String APPLY_SQL = "WITH input AS ("
+            + "  SELECT * FROM unnest(?::int[], ?::varchar[], ?::varchar[], ?::timestamptz[])"
+            + "    AS t(line_no, tracking_code, status, occurred_at)"
+            + "), matched AS ("
+            + "  SELECT i.line_no, i.status, i.occurred_at, sh.id AS shipment_id, sh.order_id,"
+            + "         sh.status AS shipment_status, sh.last_event_at, o.status AS order_status,"
+            + "         o.customer_id, o.total AS order_total"
+            + "  FROM input i"
+            + "  LEFT JOIN shipments sh ON sh.tracking_code = i.tracking_code"
+            + "  LEFT JOIN orders o ON o.id = sh.order_id"
+            + "), fresh AS ("
+            + "  SELECT m.*, row_number() OVER (PARTITION BY m.shipment_id ORDER BY m.occurred_at, m.line_no) AS pos"
+            + "  FROM matched m"
+            + "  WHERE m.shipment_id IS NOT NULL AND (m.last_event_at IS NULL OR m.occurred_at > m.last_event_at)"
+            + "), ordered AS ("
+            + "  SELECT f.*, min(f.pos) FILTER (WHERE f.status = 'RETURNED') OVER (PARTITION BY f.shipment_id) AS returned_pos"
+            + "  FROM fresh f"
+            + "), accepted AS ("
+            + "  SELECT * FROM ordered"
+            + "  WHERE shipment_status <> 'RETURNED'"
+            + "    AND CASE WHEN order_status = 'CONFIRMED' AND returned_pos IS NOT NULL THEN pos <= returned_pos"
+            + "             ELSE status <> 'RETURNED' END"
+            + "), latest AS ("
+            + "  SELECT DISTINCT ON (shipment_id) * FROM accepted"
+            + "  ORDER BY shipment_id, pos DESC"
+            + "), updated AS ("
+            + "  UPDATE shipments s"
+            + "  SET status = l.status, last_event_at = l.occurred_at, version = s.version + 1"
+            + "  FROM latest l"
+            + "  WHERE s.id = l.shipment_id AND s.status <> 'RETURNED'"
+            + "    AND (s.last_event_at IS NULL OR s.last_event_at < l.occurred_at)"
+            + "  RETURNING l.line_no, l.shipment_id"
+            + "), history AS ("
+            + "  INSERT INTO shipment_tracking_events (shipment_id, status, occurred_at, source)"
+            + "  SELECT a.shipment_id, a.status, a.occurred_at, 'CARRIER'"
+            + "  FROM accepted a JOIN updated u ON u.shipment_id = a.shipment_id"
+            + "), cancelled AS ("
+            + "  UPDATE orders o"
+            + "  SET status = 'CANCELLED', version = o.version + 1"
+            + "  FROM updated u JOIN latest l ON l.shipment_id = u.shipment_id"
+            + "  WHERE l.status = 'RETURNED' AND o.id = l.order_id AND o.status = 'CONFIRMED'"
+            + "  RETURNING l.line_no"
+            + ") "
+            + "SELECT m.line_no,"
+            + "       CASE WHEN m.shipment_id IS NULL THEN 'UNKNOWN_TRACKING_CODE'"
+            + "            WHEN r.line_no IS NULL THEN 'STALE'"
+            + "            WHEN a.line_no IS NULL THEN"
+            + "              CASE WHEN r.shipment_status = 'RETURNED' OR r.pos > r.returned_pos THEN 'SHIPMENT_RETURNED'"
+            + "                   ELSE 'RETURN_NOT_ALLOWED' END"
+            + "            WHEN u.line_no IS NOT NULL THEN 'APPLIED'"
+            + "            WHEN l.line_no IS NOT NULL THEN 'STALE'"      // otro lote aplicó uno más nuevo
+            + "            ELSE 'SUPERSEDED' END,"
+            + "       (c.line_no IS NOT NULL), m.shipment_id, m.order_id, m.customer_id, m.order_total "
+            + "FROM matched m"
+            + "  LEFT JOIN ordered r ON r.line_no = m.line_no"
+            + "  LEFT JOIN accepted a ON a.line_no = m.line_no"
+            + "  LEFT JOIN latest l ON l.line_no = m.line_no"
+            + "  LEFT JOIN updated u ON u.line_no = m.line_no"
+            + "  LEFT JOIN cancelled c ON c.line_no = m.line_no "
+            + "ORDER BY m.line_no";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<EventResult> apply(List<NumberedEvent> events) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            int size = events.size();
+            Integer[] lineNumbers = new Integer[size];
+            String[] trackingCodes = new String[size];
+            String[] statuses = new String[size];
+            String[] occurredAt = new String[size];
+            for (int i = 0; i < size; i++) {
+                NumberedEvent event = events.get(i);
+                lineNumbers[i] = event.lineNumber();
+                trackingCodes[i] = event.trackingCode();
+                statuses[i] = event.status();
+                occurredAt[i] = event.occurredAt().toString();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(APPLY_SQL)) {
+                Array[] arrays = {
+                        connection.createArrayOf("int4", lineNumbers),
+                        connection.createArrayOf("varchar", trackingCodes),
+                        connection.createArrayOf("varchar", statuses),
+                        connection.createArrayOf("varchar", occurredAt)
+                };
+                for (int i = 0; i < arrays.length; i++) {
+                    statement.setArray(i + 1, arrays[i]);
+                }
+
+                List<EventResult> results = new ArrayList<>(size);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        results.add(new EventResult(rs.getInt(1), Outcome.valueOf(rs.getString(2)), rs.getBoolean(3),
+                                rs.getObject(4, Long.class), rs.getObject(5, Long.class), rs.getObject(6, Long.class),
+                                rs.getBigDecimal(7)));
+                    }
+                }
+                for (Array array : arrays) {
+                    array.free();
+                }
+                return results;
+            }
+        });
+    }
+
+    public enum Outcome {
+        APPLIED,
+        SUPERSEDED,
+        STALE,
+        UNKNOWN_TRACKING_CODE,
+        RETURN_NOT_ALLOWED,
+        SHIPMENT_RETURNED
+    }
+
+    public record NumberedEvent(int lineNumber, String trackingCode, String status, Instant occurredAt) {
+    }
+
+    public record EventResult(int lineNumber, Outcome outcome, boolean orderCancelled,
+                              Long shipmentId, Long orderId, Long customerId, BigDecimal orderTotal) {
+    }
+}
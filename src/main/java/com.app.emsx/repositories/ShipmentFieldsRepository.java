@@ -0,0 +1,113 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.dtos.shipment.ShipmentResponse;
+import com.app.emsx.entities.Order;
+import com.app.emsx.entities.Shipment;
+import com.app.emsx.fields.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ShipmentFieldsRepository
+ * -----------------------------------------------------
+ * ✔ Lecturas de envíos con ?fields=: proyecciones escalares directas al DTO
+ * ✔ La orden solo entra en el JOIN si el FieldSet la pide
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShipmentFieldsRepository {
+
+    private final EntityManager entityManager;
+
+    public Optional<ShipmentResponse> findById(Long id, FieldSet fields) {
+        return findOne(query(fields, " WHERE sh.id = :id").setParameter("id", id), fields);
+    }
+
+    public List<ShipmentResponse> findAllById(Collection<Long> ids, FieldSet fields) {
+        return query(fields, " WHERE sh.id IN :ids")
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .map(row -> toResponse(row, fields))
+                .toList();
+    }
+
+    public Optional<ShipmentResponse> findByTrackingCode(String trackingCode, FieldSet fields) {
+        return findOne(query(fields, " WHERE sh.trackingCode = :trackingCode")
+                .setParameter("trackingCode", trackingCode), fields);
+    }
+
+    public List<ShipmentResponse> findByTrackingCodes(Collection<String> trackingCodes, FieldSet fields) {
+        return query(fields, " WHERE sh.trackingCode IN :trackingCodes")
+                .setParameter("trackingCodes", trackingCodes)
+                .getResultList().stream()
+                .map(row -> toResponse(row, fields))
+                .toList();
+    }
+
+    public Optional<ShipmentResponse> findByOrderId(Long orderId, FieldSet fields) {
+        return findOne(query(fields, " WHERE sh.order.id = :orderId").setParameter("orderId", orderId), fields);
+    }
+
+    /**
+     * Cursor de base de datos: consumir dentro de la transacción del llamador
+     */
+    public Stream<ShipmentResponse> streamAll(FieldSet fields) {
+        return query(fields, "")
+                .setHint(AvailableHints.HINT_FETCH_SIZE, 500)
+                .getResultStream()
+                .map(row -> toResponse(row, fields));
+    }
+
+    private Optional<ShipmentResponse> findOne(TypedQuery<Tuple> query, FieldSet fields) {
+        return query.getResultList().stream()
+                .map(row -> toResponse(row, fields))
+                .findFirst();
+    }
+
+    private TypedQuery<Tuple> query(FieldSet fields, String where) {
+        StringBuilder jpql = new StringBuilder("SELECT sh.id AS id, sh.trackingCode AS trackingCode, "
+                + "sh.status AS status, sh.carrier AS carrier, sh.estimatedDeliveryDate AS estimatedDeliveryDate");
+        if (fields.includes("order")) {
+            jpql.append(", o.id AS orderId, o.date AS orderDate, o.status AS orderStatus, o.total AS orderTotal")
+                    .append(" FROM Shipment sh LEFT JOIN sh.order o");
+        } else {
+            jpql.append(" FROM Shipment sh");
+        }
+        jpql.append(where).append(" ORDER BY sh.id");
+        return entityManager.createQuery(jpql.toString(), Tuple.class);
+    }
+
+    private ShipmentResponse toResponse(Tuple row, FieldSet fields) {
+        Shipment.ShipmentStatus status = row.get("status", Shipment.ShipmentStatus.class);
+        ShipmentResponse.ShipmentResponseBuilder builder = ShipmentResponse.builder()
+                .id(row.get("id", Long.class))
+                .trackingCode(row.get("trackingCode", String.class))
+                .status(status != null ? status.name() : null)
+                .carrier(row.get("carrier", String.class))
+                .estimatedDeliveryDate(row.get("estimatedDeliveryDate", String.class));
+        Long orderId = fields.includes("order") ? row.get("orderId", Long.class) : null;
+        if (orderId != null) {
+            LocalDateTime date = row.get("orderDate", LocalDateTime.class);
+            Order.OrderStatus orderStatus = row.get("orderStatus", Order.OrderStatus.class);
+            BigDecimal total = row.get("orderTotal", BigDecimal.class);
+            builder.order(ShipmentResponse.OrderInfo.builder()
+                    .id(orderId)
+                    .date(date != null ? date.toString() : null)
+                    .status(orderStatus != null ? orderStatus.name() : null)
+                    .total(total != null ? total.toString() : null)
+                    .build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.emsx.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * ShipmentHistoryRepository
+ * -----------------------------------------------------
+ * ✔ Historial append-only de estados de envío (tabla particionada por recorded_at)
+ * ✔ append escribe un lote con un solo batch JDBC, en la transacción del llamador
+ * ✔ La lectura acota recorded_at desde la creación del envío, así el planner
+ *   descarta las particiones anteriores sin tocarlas
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShipmentHistoryRepository {
+
+    // Holgura ante relojes de aplicación y base de datos desfasados
+    private static final Duration CLOCK_SKEW = Duration.ofHours(1);
+
+    private static final String INSERT_SQL = "INSERT INTO shipment_tracking_events"
+            + " (shipment_id, status, occurred_at, source) VALUES (?, ?, ?, ?)";
+
+    private static final String HISTORY_SQL = "SELECT status, occurred_at, recorded_at, source"
+            + " FROM shipment_tracking_events"
+            + " WHERE shipment_id = ? AND recorded_at >= ?"
+            + " ORDER BY occurred_at, recorded_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.shipmentId());
+            statement.setString(2, entry.status());
+            statement.setTimestamp(3, Timestamp.from(entry.occurredAt()));
+            statement.setString(4, entry.source().name());
+        });
+    }
+
+    /**
+     * createdAt null (envíos anteriores a la columna): recorre todas las particiones
+     */
+    public List<Row> findByShipment(Long shipmentId, Instant createdAt) {
+        Timestamp from = createdAt != null
+                ? Timestamp.from(createdAt.minus(CLOCK_SKEW))
+                : Timestamp.from(Instant.EPOCH);
+        return jdbcTemplate.query(HISTORY_SQL, (rs, rowNum) -> new Row(
+                rs.getString(1),
+                rs.getTimestamp(2).toInstant(),
+                rs.getTimestamp(3).toInstant(),
+                Source.valueOf(rs.getString(4))), shipmentId, from);
+    }
+
+    public enum Source {
+        CARRIER,
+        SYSTEM
+    }
+
+    public record Entry(Long shipmentId, String status, Instant occurredAt, Source source) {
+    }
+
+    public record Row(String status, Instant occurredAt, Instant recordedAt, Source source) {
+    }
+}
@@ -1,13 +1,16 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Shipment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
@@ -16,11 +19,22 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
     @Query("SELECT s FROM Shipment s JOIN FETCH s.order WHERE s.order.id = :orderId")
     Optional<Shipment> findByOrderId(@Param("orderId") Long orderId);
     
-    @Query("SELECT DISTINCT s FROM Shipment s LEFT JOIN FETCH s.order")
-    List<Shipment> findAllWithOrder();
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Shipment s LEFT JOIN FETCH s.order ORDER BY s.id")
+    Stream<Shipment> streamAllWithOrder();
     
     @Query("SELECT s FROM Shipment s LEFT JOIN FETCH s.order WHERE s.id = :id")
     Optional<Shipment> findByIdWithOrder(@Param("id") Long id);
+
+    @Query("SELECT s.id AS shipmentId, s.version AS shipmentVersion, o.version AS orderVersion "
+            + "FROM Shipment s LEFT JOIN s.order o WHERE s.trackingCode = :trackingCode")
+    Optional<ShipmentVersion> findVersionByTrackingCode(@Param("trackingCode") String trackingCode);
+
+    interface ShipmentVersion {
+        Long getShipmentId();
+        Long getShipmentVersion();
+        Long getOrderVersion();
+    }
 }
 
 
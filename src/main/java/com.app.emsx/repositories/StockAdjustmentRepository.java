@@ -0,0 +1,138 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.dtos.stock.StockAdjustmentRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StockAdjustmentRepository
+ * -----------------------------------------------------
+ * ✔ Aplica un bloque de ajustes de stock con una sola sentencia UPDATE ... FROM unnest(...)
+ * ✔ La regla quantity >= reserved_quantity se evalúa en el WHERE (re-chequeada por Postgres
+ *   sobre la versión vigente de la fila ante actualizaciones concurrentes), igual que el
+ *   tope de int: un delta que desborda rechaza su línea en vez de abortar el bloque
+ * ✔ Devuelve el resultado de cada línea para poder reportar las rechazadas
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockAdjustmentRepository {
+
+    private static final String ADJUST_SQL = "WITH input AS ("
+            + "  SELECT * FROM unnest(?::int[], ?::bigint[], ?::varchar[], ?::varchar[], ?::int[])"
+            + "    AS t(line_no, product_id, sku, mode, qty)"
+            + "), resolved AS ("
+            + "  SELECT i.line_no, i.mode, i.qty, COALESCE(pi.id, ps.id) AS product_id,"
+            + "         st.id AS stock_id, st.quantity AS current_quantity, st.reserved_quantity AS current_reserved,"
+            + "         row_number() OVER (PARTITION BY COALESCE(pi.id, ps.id) ORDER BY i.line_no) AS rn"
+            + "  FROM input i"
+            + "  LEFT JOIN products pi ON pi.id = i.product_id"
+            + "  LEFT JOIN products ps ON i.product_id IS NULL AND ps.sku = i.sku"
+            + "  LEFT JOIN stocks st ON st.product_id = COALESCE(pi.id, ps.id)"
+            + "), updated AS ("
+            + "  UPDATE stocks s"
+            + "  SET quantity = CASE WHEN r.mode = 'ABSOLUTE' THEN r.qty ELSE s.quantity + r.qty END,"
+            + "      version = s.version + 1"
+            + "  FROM resolved r"
+            + "  WHERE r.rn = 1 AND r.product_id IS NOT NULL AND s.product_id = r.product_id"
+            + "    AND CASE WHEN r.mode = 'ABSOLUTE' THEN r.qty ELSE s.quantity::bigint + r.qty END"
+            + "        BETWEEN s.reserved_quantity AND 2147483647"
+            + "  RETURNING r.line_no, s.id, s.quantity, s.reserved_quantity, s.version"
+            + ") "
+            + "SELECT r.line_no, r.product_id, r.rn, r.stock_id, r.current_quantity, r.current_reserved,"
+            + "       u.quantity, u.reserved_quantity, u.version, (u.line_no IS NOT NULL) AS applied "
+            + "FROM resolved r LEFT JOIN updated u ON u.line_no = r.line_no "
+            + "ORDER BY r.line_no";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<LineResult> adjust(List<NumberedLine> lines) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            int size = lines.size();
+            Integer[] lineNumbers = new Integer[size];
+            Long[] productIds = new Long[size];
+            String[] skus = new String[size];
+            String[] modes = new String[size];
+            Integer[] quantities = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                NumberedLine line = lines.get(i);
+                lineNumbers[i] = line.lineNumber();
+                productIds[i] = line.line().getProductId();
+                skus[i] = line.line().getSku();
+                modes[i] = line.line().getMode().name();
+                quantities[i] = line.line().getQuantity();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(ADJUST_SQL)) {
+                Array[] arrays = {
+                        connection.createArrayOf("int4", lineNumbers),
+                        connection.createArrayOf("int8", productIds),
+                        connection.createArrayOf("varchar", skus),
+                        connection.createArrayOf("varchar", modes),
+                        connection.createArrayOf("int4", quantities)
+                };
+                for (int i = 0; i < arrays.length; i++) {
+                    statement.setArray(i + 1, arrays[i]);
+                }
+
+                List<LineResult> results = new ArrayList<>(size);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        results.add(new LineResult(
+                                rs.getInt(1),
+                                rs.getObject(2, Long.class),
+                                rs.getInt(3),
+                                rs.getObject(4, Long.class),
+                                rs.getObject(5, Integer.class),
+                                rs.getObject(6, Integer.class),
+                                rs.getObject(7, Integer.class),
+                                rs.getObject(8, Integer.class),
+                                rs.getObject(9, Long.class),
+                                rs.getBoolean(10)));
+                    }
+                }
+                for (Array array : arrays) {
+                    array.free();
+                }
+                return results;
+            }
+        });
+    }
+
+    /**
+     * ✅ Id de producto de cada SKU existente (una sola consulta para toda la solicitud)
+     */
+    public Map<String, Long> findProductIdsBySku(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        if (skus.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT sku, id FROM products WHERE sku = ANY(?::varchar[])");
+            statement.setArray(1, connection.createArrayOf("varchar", skus.toArray()));
+            return statement;
+        }, (ResultSet rs) -> {
+            ids.put(rs.getString(1), rs.getLong(2));
+        });
+        return ids;
+    }
+
+    public record NumberedLine(int lineNumber, StockAdjustmentRequest.Line line) {
+    }
+
+    public record LineResult(int lineNumber, Long productId, int occurrence, Long stockId,
+                             Integer previousQuantity, Integer previousReserved,
+                             Integer quantity, Integer reservedQuantity, Long version, boolean applied) {
+    }
+}
@@ -1,16 +1,21 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Stock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT s FROM Stock s WHERE s.product.id = :productId")
     Optional<Stock> findByProductId(@Param("productId") Long productId);
     
@@ -19,6 +24,17 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
     
     @Query("SELECT s FROM Stock s WHERE s.quantity > :minQuantity")
     List<Stock> findStocksWithQuantityGreaterThan(@Param("minQuantity") Integer minQuantity);
+
+    // Proyección: no hidrata entidades ni pasa por la caché L2
+    @Query("SELECT s.product.id AS productId, s.quantity AS quantity, s.reservedQuantity AS reservedQuantity "
+            + "FROM Stock s WHERE s.product.id IN :productIds")
+    List<StockLevel> findLevelsByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    interface StockLevel {
+        Long getProductId();
+        Integer getQuantity();
+        Integer getReservedQuantity();
+    }
 }
 
 
@@ -0,0 +1,19 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.entities.User;
+
+import java.util.Optional;
+
+/**
+ * UserNaturalIdRepository
+ * -----------------------------------------------------
+ * ✔ Búsqueda de usuarios por email usando el natural-id de Hibernate
+ * ✔ Resuelve desde la caché de segundo nivel sin consultar la base de datos
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Busca un usuario por su email (para login y filtro JWT)
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -4,19 +4,12 @@ import com.app.emsx.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 /**
  * UserRepository
  * -----------------------------------------------------
  * ✔ Repositorio JPA para entidad User
- * ✔ Incluye método para buscar por email
+ * ✔ Incluye método para buscar por email (natural-id cacheado)
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    /**
-     * Busca un usuario por su email (para login)
-     */
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 }
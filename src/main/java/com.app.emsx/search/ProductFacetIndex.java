@@ -0,0 +1,316 @@
+package com.app.emsx.search;
+
+import com.app.emsx.dtos.product.ProductFacetRequest;
+import com.app.emsx.dtos.product.ProductFacetResponse;
+import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.entities.Product;
+import com.app.emsx.events.ProductChangedEvent;
+import com.app.emsx.events.ProductsImportedEvent;
+import com.app.emsx.events.StockChangedEvent;
+import com.app.emsx.mappers.ProductMapper;
+import com.app.emsx.repositories.ProductRepository;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ProductFacetIndex
+ * -----------------------------------------------------
+ * ✔ Un bitmap comprimido (Roaring) de ids de producto por cada valor de faceta
+ * ✔ Facetas: categoría, estado, disponibilidad y banda de precio
+ * ✔ Filtros combinados con AND/OR de bitmaps; conteos con andCardinality
+ * ✔ Pagina los ids resultantes sobre ProductResponse cacheados en memoria
+ * ✔ Se mantiene al día con ProductChangedEvent y StockChangedEvent (después del commit);
+ *   la disponibilidad de cualquiera de los dos con versión de stock anterior a la ya
+ *   indexada se ignora
+ */
+@Component
+public class ProductFacetIndex {
+
+    public static final String IN_STOCK = "IN_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+
+    public enum Facet {
+        CATEGORY("category"),
+        STATUS("status"),
+        AVAILABILITY("availability"),
+        PRICE_BAND("priceBand");
+
+        private final String key;
+
+        Facet(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final List<BigDecimal> priceBounds;
+
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final Map<Integer, String[]> assignments = new HashMap<>();
+    private final Map<Integer, ProductResponse> products = new HashMap<>();
+    private final Map<Integer, Long> stockVersions = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductFacetIndex(ProductRepository productRepository,
+                             @Value("${emsx.catalog.price-bands:10,50,100,500}") List<BigDecimal> priceBounds) {
+        this.productRepository = productRepository;
+        this.priceBounds = priceBounds.stream().sorted().toList();
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new TreeMap<>());
+        }
+    }
+
+    /**
+     * ✅ Carga inicial del catálogo completo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public void rebuild() {
+        rebuildFromDatabase();
+    }
+
+    /**
+     * ✅ Reconstrucción completa tras una importación masiva (escrita por SQL directo)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuildFromDatabase();
+    }
+
+    private void rebuildFromDatabase() {
+        List<Product> entities = productRepository.findAllWithStock();
+        List<ProductResponse> catalog = entities.stream()
+                .map(ProductMapper::toResponse)
+                .toList();
+        Map<Integer, Long> versions = new HashMap<>();
+        for (Product product : entities) {
+            if (product.getStock() != null && product.getStock().getVersion() != null) {
+                versions.put(toIndexId(product.getId()), product.getStock().getVersion());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            bitmaps.values().forEach(Map::clear);
+            assignments.clear();
+            products.clear();
+            all.clear();
+            stockVersions.clear();
+            stockVersions.putAll(versions);
+            catalog.forEach(this::upsertLocked);
+            bitmaps.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+            all.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getProduct() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int id = toIndexId(event.getProductId());
+            ProductResponse product = event.getProduct();
+            ProductResponse current = products.get(id);
+            Long indexed = stockVersions.get(id);
+            Long version = event.getStockVersion();
+            if (version != null && indexed != null && version < indexed) {
+                // Ya se indexó un stock más nuevo: se aplican los datos del producto, no su stock
+                if (current != null && current.getStock() != null) {
+                    product = ProductMapper.withStock(product,
+                            current.getStock().getQuantity(), current.getStock().getReservedQuantity());
+                }
+            } else if (version != null) {
+                stockVersions.put(id, version);
+            }
+            upsertLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            int id = toIndexId(event.getProductId());
+            ProductResponse current = products.get(id);
+            Long indexed = stockVersions.get(id);
+            if (current == null || (event.getVersion() != null && indexed != null && event.getVersion() < indexed)) {
+                return;
+            }
+            if (event.getVersion() != null) {
+                stockVersions.put(id, event.getVersion());
+            }
+            upsertLocked(ProductMapper.withStock(current, event.getQuantity(), event.getReservedQuantity()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ Filtro combinado + conteos por faceta + página de resultados
+     * Dentro de una faceta los valores se combinan con OR; entre facetas con AND.
+     * Los conteos de cada faceta ignoran la selección de esa misma faceta (multi-selección).
+     */
+    public ProductFacetResponse query(ProductFacetRequest request) {
+        Map<Facet, List<String>> selected = new EnumMap<>(Facet.class);
+        putIfPresent(selected, Facet.CATEGORY, request.getCategory());
+        putIfPresent(selected, Facet.STATUS, request.getStatus());
+        putIfPresent(selected, Facet.AVAILABILITY, request.getAvailability());
+        putIfPresent(selected, Facet.PRICE_BAND, request.getPriceBand());
+
+        lock.readLock().lock();
+        try {
+            Map<Facet, RoaringBitmap> selections = new EnumMap<>(Facet.class);
+            selected.forEach((facet, values) -> selections.put(facet, union(facet, values)));
+
+            RoaringBitmap matches = intersectExcept(selections, null);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (Facet facet : Facet.values()) {
+                RoaringBitmap base = selections.containsKey(facet) ? intersectExcept(selections, facet) : matches;
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                bitmaps.get(facet).forEach((value, ids) -> counts.put(value, RoaringBitmap.andCardinality(base, ids)));
+                facets.put(facet.getKey(), counts);
+            }
+
+            long offset = (long) request.getPage() * request.getSize();
+            List<ProductResponse> items = new ArrayList<>(request.getSize());
+            if (offset < matches.getLongCardinality()) {
+                PeekableIntIterator iterator = matches.getIntIterator();
+                iterator.advanceIfNeeded(matches.select((int) offset));
+                while (iterator.hasNext() && items.size() < request.getSize()) {
+                    ProductResponse product = products.get(iterator.next());
+                    if (product != null) {
+                        items.add(product);
+                    }
+                }
+            }
+
+            return ProductFacetResponse.builder()
+                    .items(items)
+                    .page(request.getPage())
+                    .size(request.getSize())
+                    .totalElements(matches.getLongCardinality())
+                    .facets(facets)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertLocked(ProductResponse product) {
+        int id = toIndexId(product.getId());
+        String[] values = new String[Facet.values().length];
+        values[Facet.CATEGORY.ordinal()] = product.getCategory();
+        values[Facet.STATUS.ordinal()] = product.getStatus();
+        values[Facet.AVAILABILITY.ordinal()] = availability(product.getStock());
+        values[Facet.PRICE_BAND.ordinal()] = priceBand(product.getPrice());
+
+        String[] previous = assignments.put(id, values);
+        for (Facet facet : Facet.values()) {
+            String oldValue = previous != null ? previous[facet.ordinal()] : null;
+            String newValue = values[facet.ordinal()];
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            Map<String, RoaringBitmap> facetBitmaps = bitmaps.get(facet);
+            if (oldValue != null) {
+                RoaringBitmap ids = facetBitmaps.get(oldValue);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        facetBitmaps.remove(oldValue);
+                    }
+                }
+            }
+            if (newValue != null) {
+                facetBitmaps.computeIfAbsent(newValue, v -> new RoaringBitmap()).add(id);
+            }
+        }
+        products.put(id, product);
+        all.add(id);
+    }
+
+    private RoaringBitmap union(Facet facet, List<String> values) {
+        Map<String, RoaringBitmap> facetBitmaps = bitmaps.get(facet);
+        RoaringBitmap result = new RoaringBitmap();
+        for (String value : values) {
+            RoaringBitmap ids = facetBitmaps.get(value);
+            if (ids != null) {
+                result.or(ids);
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap intersectExcept(Map<Facet, RoaringBitmap> selections, Facet excluded) {
+        RoaringBitmap result = all.clone();
+        selections.forEach((facet, ids) -> {
+            if (facet != excluded) {
+                result.and(ids);
+            }
+        });
+        return result;
+    }
+
+    private String availability(ProductResponse.StockInfo stock) {
+        if (stock == null || stock.getAvailableQuantity() == null) {
+            return OUT_OF_STOCK;
+        }
+        return stock.getAvailableQuantity() > 0 ? IN_STOCK : OUT_OF_STOCK;
+    }
+
+    private String priceBand(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : priceBounds) {
+            if (price.compareTo(bound) < 0) {
+                return label(lower) + "-" + label(bound);
+            }
+            lower = bound;
+        }
+        return label(lower) + "+";
+    }
+
+    private static String label(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    private static void putIfPresent(Map<Facet, List<String>> selected, Facet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selected.put(facet, values);
+        }
+    }
+
+    private static int toIndexId(Long id) {
+        return Math.toIntExact(id);
+    }
+}
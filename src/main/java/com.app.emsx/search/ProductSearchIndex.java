@@ -0,0 +1,434 @@
+package com.app.emsx.search;
+
+import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.dtos.product.ProductSearchResponse;
+import com.app.emsx.entities.Product;
+import com.app.emsx.events.ProductChangedEvent;
+import com.app.emsx.events.ProductsImportedEvent;
+import com.app.emsx.repositories.ProductRepository;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * ProductSearchIndex
+ * -----------------------------------------------------
+ * ✔ Índice invertido en memoria sobre nombre, descripción, SKU y categoría
+ * ✔ Ranking por peso de campo × IDF; el último término se trata como prefijo
+ * ✔ Tolerancia a errores tipográficos (1–2 ediciones, incluidas transposiciones) cuando no hay coincidencias.
+ *   Candidatos: términos cuya primera o segunda letra es la primera o la segunda del token, lo que
+ *   cubre cualquier edición única en la inicial ("xamera", "rpoduct", "amera", "ccamera"); no se
+ *   encuentran dos ediciones que toquen las dos primeras letras a la vez
+ * ✔ Se reconstruye al arrancar y se actualiza tras cada commit de ProductServiceImpl
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final float SKU_WEIGHT = 4f;
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final double PREFIX_FACTOR = 0.8;
+    private static final double FUZZY_FACTOR = 0.5;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int FUZZY_MIN_LENGTH = 3;
+    private static final int FUZZY_TWO_EDITS_LENGTH = 7;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final ProductRepository productRepository;
+
+    // Las búsquedas leen la referencia una vez y no toman lock; una reconstrucción arma
+    // un índice nuevo aparte y lo publica de golpe
+    private volatile Snapshot snapshot = new Snapshot();
+    private final Object writeLock = new Object();
+
+    /**
+     * ✅ Carga inicial con todos los productos activos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public void rebuild() {
+        rebuildFromDatabase();
+    }
+
+    /**
+     * ✅ Reconstrucción completa tras una importación masiva (escrita por SQL directo)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuildFromDatabase();
+    }
+
+    private void rebuildFromDatabase() {
+        // El lock retiene las actualizaciones incrementales hasta el swap para no perderlas
+        synchronized (writeLock) {
+            Snapshot rebuilt = new Snapshot();
+            for (Product product : productRepository.findAllWithStock()) {
+                if (product.getStatus() == Product.ProductStatus.INACTIVE) {
+                    continue;
+                }
+                rebuilt.index(product.getId(), product.getName(), product.getDescription(),
+                        product.getCategory(), product.getSku(), product.getPrice());
+            }
+            snapshot = rebuilt;
+        }
+    }
+
+    /**
+     * ✅ Actualización incremental tras create / update / delete
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED || product == null
+                || Product.ProductStatus.INACTIVE.name().equals(product.getStatus())) {
+            remove(event.getProductId());
+            return;
+        }
+        index(product.getId(), product.getName(), product.getDescription(),
+                product.getCategory(), product.getSku(), product.getPrice());
+    }
+
+    public void index(Long id, String name, String description, String category, String sku, BigDecimal price) {
+        synchronized (writeLock) {
+            snapshot.index(id, name, description, category, sku, price);
+        }
+    }
+
+    public void remove(Long id) {
+        synchronized (writeLock) {
+            snapshot.remove(id);
+        }
+    }
+
+    /**
+     * ✅ Búsqueda rankeada; todos los términos deben coincidir (el último como prefijo)
+     */
+    public List<ProductSearchResponse> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Snapshot index = snapshot;
+        Map<Long, Double> scores = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            Map<String, Double> expansions = index.expand(tokens.get(i), i == tokens.size() - 1);
+            Map<Long, Double> tokenScores = new HashMap<>();
+            expansions.forEach((term, factor) -> {
+                Map<Long, Float> docs = index.postings.get(term);
+                if (docs == null) {
+                    return;
+                }
+                double idf = Math.log(1.0 + (double) index.documents.size() / docs.size());
+                docs.forEach((id, weight) -> tokenScores.merge(id, factor * idf * weight, Math::max));
+            });
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // El documento se resuelve al elegir el top: uno quitado mientras se puntuaba se salta
+        // aquí y no deja la página con menos resultados de los que hay
+        PriorityQueue<ProductSearchResponse> top = new PriorityQueue<>(
+                Comparator.comparingDouble(ProductSearchResponse::getScore));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            IndexedProduct product = index.documents.get(entry.getKey());
+            if (product == null) {
+                continue;
+            }
+            top.offer(product.toResponse(entry.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<ProductSearchResponse> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            results.add(top.poll());
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * ✅ Autocompletado: completa el último término con los términos más frecuentes del índice
+     */
+    public List<String> suggest(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot index = snapshot;
+        String head = String.join(" ", tokens.subList(0, tokens.size() - 1));
+        return index.expand(tokens.get(tokens.size() - 1), true).entrySet().stream()
+                .sorted((a, b) -> {
+                    int byFactor = Double.compare(b.getValue(), a.getValue());
+                    if (byFactor != 0) {
+                        return byFactor;
+                    }
+                    int byFrequency = Integer.compare(index.documentFrequency(b.getKey()),
+                            index.documentFrequency(a.getKey()));
+                    return byFrequency != 0 ? byFrequency : a.getKey().compareTo(b.getKey());
+                })
+                .limit(limit)
+                .map(e -> head.isEmpty() ? e.getKey() : head + " " + e.getKey())
+                .toList();
+    }
+
+    public int size() {
+        return snapshot.documents.size();
+    }
+
+    /**
+     * Damerau-Levenshtein acotado (transposiciones adyacentes cuentan como una edición);
+     * en modo prefijo compara contra el mejor prefijo del término.
+     * Devuelve max + 1 en cuanto la distancia supera el límite.
+     */
+    private static int distance(String query, String term, int max, boolean prefix) {
+        int n = query.length();
+        int m = prefix ? Math.min(term.length(), n + max) : term.length();
+        if (!prefix && Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = query.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && query.charAt(i - 1) == term.charAt(j - 2)
+                        && query.charAt(i - 2) == term.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        if (!prefix) {
+            return previous[m];
+        }
+        int best = previous[0];
+        for (int j = 1; j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static void addTokens(Map<String, Float> weights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Índice completo: documentos, postings por término, términos ordenados (prefijos) y
+     * rotados, con la inicial al final (candidatos fuzzy por segunda letra).
+     * Las actualizaciones incrementales (bajo writeLock) se leen sin lock, así que el orden de
+     * escritura importa: el documento se publica antes que sus postings y se retira después
+     * de ellos. Un lector puede igual ver un id cuyo documento ya no está (lo salta) o, durante
+     * un instante, postings del contenido anterior de un documento reindexado.
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, IndexedProduct> documents = new ConcurrentHashMap<>();
+        private final Map<String, Map<Long, Float>> postings = new ConcurrentHashMap<>();
+        private final NavigableSet<String> terms = new ConcurrentSkipListSet<>();
+        private final NavigableSet<String> rotatedTerms = new ConcurrentSkipListSet<>();
+
+        void index(Long id, String name, String description, String category, String sku, BigDecimal price) {
+            Map<String, Float> weights = new HashMap<>();
+            addTokens(weights, name, NAME_WEIGHT);
+            addTokens(weights, description, DESCRIPTION_WEIGHT);
+            addTokens(weights, category, CATEGORY_WEIGHT);
+            addTokens(weights, sku, SKU_WEIGHT);
+            String compactSku = normalize(sku).replaceAll("[^a-z0-9]", "");
+            if (!compactSku.isEmpty()) {
+                weights.merge(compactSku, SKU_WEIGHT, Float::sum);
+            }
+
+            // Reemplazo en el lugar: el documento nunca falta mientras se reindexa
+            IndexedProduct previous = documents.put(id,
+                    new IndexedProduct(id, name, sku, category, price, weights.keySet()));
+            weights.forEach((term, weight) -> {
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, weight);
+                terms.add(term);
+                rotatedTerms.add(rotate(term));
+            });
+            if (previous != null) {
+                for (String term : previous.terms()) {
+                    if (!weights.containsKey(term)) {
+                        removePosting(term, id);
+                    }
+                }
+            }
+        }
+
+        void remove(Long id) {
+            IndexedProduct previous = documents.get(id);
+            if (previous == null) {
+                return;
+            }
+            // Primero los postings, después el documento
+            for (String term : previous.terms()) {
+                removePosting(term, id);
+            }
+            documents.remove(id);
+        }
+
+        private void removePosting(String term, Long id) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs == null) {
+                return;
+            }
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+                terms.remove(term);
+                rotatedTerms.remove(rotate(term));
+            }
+        }
+
+        int documentFrequency(String term) {
+            Map<Long, Float> docs = postings.get(term);
+            return docs == null ? 0 : docs.size();
+        }
+
+        Map<String, Double> expand(String token, boolean prefix) {
+            Map<String, Double> expansions = new LinkedHashMap<>();
+            if (terms.contains(token)) {
+                expansions.put(token, 1.0);
+            }
+            if (prefix) {
+                for (String term : terms.subSet(token, false, token + Character.MAX_VALUE, false)) {
+                    if (expansions.size() >= MAX_EXPANSIONS) {
+                        break;
+                    }
+                    expansions.put(term, PREFIX_FACTOR);
+                }
+            }
+            if (!expansions.isEmpty() || token.length() < FUZZY_MIN_LENGTH) {
+                return expansions;
+            }
+
+            // Inicial correcta (t0…), cambiada (?t1…), transpuesta o sobrante en el token (t1…)
+            // o faltante en el token (?t0…); hasta MAX_EXPANSIONS coincidencias, como antes
+            int maxEdits = token.length() >= FUZZY_TWO_EDITS_LENGTH ? 2 : 1;
+            char first = token.charAt(0);
+            char second = token.charAt(1);
+            List<Iterable<String>> sources = List.of(
+                    startingWith(terms, first),
+                    () -> startingWith(rotatedTerms, second).stream().map(Snapshot::unrotate).iterator(),
+                    startingWith(terms, second),
+                    () -> startingWith(rotatedTerms, first).stream().map(Snapshot::unrotate).iterator());
+            for (Iterable<String> source : sources) {
+                for (String term : source) {
+                    if (expansions.size() >= MAX_EXPANSIONS) {
+                        return expansions;
+                    }
+                    // Sin prefijo, a más de maxEdits de diferencia de longitud no hay coincidencia posible
+                    if (expansions.containsKey(term) || term.length() < token.length() - maxEdits
+                            || (!prefix && term.length() > token.length() + maxEdits)) {
+                        continue;
+                    }
+                    int distance = distance(token, term, maxEdits, prefix);
+                    if (distance <= maxEdits) {
+                        expansions.put(term, FUZZY_FACTOR / distance);
+                    }
+                }
+            }
+            return expansions;
+        }
+
+        private static NavigableSet<String> startingWith(NavigableSet<String> set, char c) {
+            return set.subSet(String.valueOf(c), true, String.valueOf((char) (c + 1)), false);
+        }
+
+        // "camera" → "amerac": agrupa por segunda letra; es reversible (la inicial queda al final)
+        private static String rotate(String term) {
+            return term.length() < 2 ? term : term.substring(1) + term.charAt(0);
+        }
+
+        private static String unrotate(String rotated) {
+            int last = rotated.length() - 1;
+            return rotated.length() < 2 ? rotated : rotated.charAt(last) + rotated.substring(0, last);
+        }
+    }
+
+    private record IndexedProduct(Long id, String name, String sku, String category, BigDecimal price,
+                                  Set<String> terms) {
+
+        ProductSearchResponse toResponse(double score) {
+            return ProductSearchResponse.builder()
+                    .id(id)
+                    .name(name)
+                    .sku(sku)
+                    .category(category)
+                    .price(price)
+                    .score(score)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.emsx.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * AuthenticatedUser
+ * -----------------------------------------------------
+ * ✔ Principal reconstruido desde los claims firmados del JWT (id, email, rol)
+ * ✔ getName() devuelve el email, igual que el username de User
+ */
+public record AuthenticatedUser(Long id, String email, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority(role != null ? role : "ROLE_USER"));
+    }
+}
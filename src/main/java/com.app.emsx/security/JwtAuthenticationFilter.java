@@ -1,10 +1,12 @@
 package com.app.emsx.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,12 +19,35 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
 
+/**
+ * JwtAuthenticationFilter
+ * -----------------------------------------------------
+ * ✔ Autentica cada petición con el Bearer token
+ * ✔ Modo stateless-principal (por defecto): el principal (AuthenticatedUser) sale de los
+ *   claims firmados, sin leer el usuario; solo se comprueba su token_version (cacheada)
+ * ✔ Sin ese modo, o con tokens sin uid, carga el User con UserDetailsService como antes
+ * ✔ No acepta refresh tokens ni tokens revocados (logout)
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersions tokenVersions;
+    private final TokenRevocations tokenRevocations;
+    private final boolean statelessPrincipal;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   TokenVersions tokenVersions,
+                                   TokenRevocations tokenRevocations,
+                                   @Value("${emsx.jwt.stateless-principal:true}") boolean statelessPrincipal) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersions = tokenVersions;
+        this.tokenRevocations = tokenRevocations;
+        this.statelessPrincipal = statelessPrincipal;
+    }
 
     // 🔥 Rutas públicas que no requieren JWT
     private static final List<String> PUBLIC_PATHS = List.of(
@@ -59,24 +84,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 🔐 Extraer token
+        // 🔐 Extraer y verificar el token (una sola vez por petición)
         String jwt = authHeader.substring(7);
-        String username = jwtService.extractUsername(jwt);
+        Claims claims;
+        try {
+            claims = jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // Token inválido o expirado: la petición sigue sin autenticar
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (jwtService.isRefreshToken(claims) || tokenRevocations.isRevoked(claims.getId())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String username = claims.getSubject();
 
         // Autenticar solo si aún no está autenticado
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+            UsernamePasswordAuthenticationToken authToken = statelessPrincipal
+                    ? jwtService.toPrincipal(claims)
+                            .map(principal -> fromClaims(principal, claims))
+                            .orElseGet(() -> fromDatabase(username, claims))
+                    : fromDatabase(username, claims);
 
+            if (authToken != null) {
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
@@ -88,4 +121,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continuar cadena
         filterChain.doFilter(request, response);
     }
+
+    // Sin consultar el usuario: los claims ya están firmados; solo se descarta un token revocado
+    private UsernamePasswordAuthenticationToken fromClaims(AuthenticatedUser principal, Claims claims) {
+        if (!tokenVersions.isCurrent(principal.id(), jwtService.tokenVersion(claims))) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.authorities());
+    }
+
+    private UsernamePasswordAuthenticationToken fromDatabase(String username, Claims claims) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
 }
@@ -1,14 +1,24 @@
 package com.app.emsx.security;
 
+import com.app.emsx.entities.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.github.cdimascio.dotenv.Dotenv;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
 
@@ -18,15 +28,47 @@ import java.util.function.Function;
  * ✔ Genera y valida tokens JWT
  * ✔ Carga la clave desde .env o variables del sistema
  * ✔ Extrae claims, usuario y expiración
+ * ✔ Claims compactos: uid, role y ver (token_version) bastan para reconstruir el
+ *   principal sin consultar la base
+ * ✔ Un único parser (inmutable, thread-safe) y una sola verificación por token:
+ *   los claims verificados se guardan, por hash SHA-256 del token, hasta su expiración
  */
+@Slf4j
 @Service
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_TYPE = "typ";
+    public static final String TYPE_REFRESH = "refresh";
+
     private final Dotenv dotenv = Dotenv.configure()
             .ignoreIfMissing() // Evita excepción si .env no existe
             .load();
 
+    private final Cache<String, Claims> verifiedTokens;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
     private Key key;
+    private JwtParser parser;
+
+    /**
+     * ✅ verifiedCacheSize = 0 desactiva la caché (cada petición verifica la firma)
+     */
+    public JwtService(@Value("${emsx.jwt.verified-cache-size:10000}") long verifiedCacheSize,
+                      @Value("${emsx.jwt.access-ttl-minutes:15}") long accessTtlMinutes,
+                      @Value("${emsx.jwt.refresh-ttl-days:14}") long refreshTtlDays) {
+        this.accessTtl = Duration.ofMinutes(accessTtlMinutes);
+        this.refreshTtl = Duration.ofDays(refreshTtlDays);
+        this.verifiedTokens = verifiedCacheSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                // Cada entrada vence junto con su token: un hit nunca devuelve un token expirado
+                .expireAfter(Expiry.creating((String hash, Claims claims) ->
+                        Duration.ofMillis(claims.getExpiration().getTime() - System.currentTimeMillis())))
+                .build();
+    }
 
     /**
      * ✅ Inicializa la clave al iniciar el servicio (producción segura)
@@ -51,15 +93,24 @@ public class JwtService {
             throw new IllegalStateException("❌ No se encontró JWT_SECRET ni en .env ni en variables del sistema");
         }
 
+        initKey(secret);
+    }
+
+    /**
+     * ✅ Inicializa la clave a partir del secreto en Base64 (también usado por los benchmarks)
+     */
+    public void initKey(String secret) {
         // 4️⃣ Validar tamaño mínimo (256 bits = 32 bytes codificados Base64)
-        System.out.println("SECRET LEÍDO: " + secret);
         byte[] keyBytes = Decoders.BASE64.decode(secret.trim());
         if (keyBytes.length < 32) {
             throw new IllegalStateException("❌ La clave JWT_SECRET es demasiado corta. Debe ser ≥ 256 bits (usa openssl rand -base64 64)");
         }
 
         this.key = Keys.hmacShaKeyFor(keyBytes);
-        System.out.println("🔑 JWT_SECRET cargada correctamente (" + keyBytes.length * 8 + " bits)");
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        log.info("🔑 JWT_SECRET cargada correctamente ({} bits)", keyBytes.length * 8);
     }
 
     private Key getSignInKey() {
@@ -69,6 +120,13 @@ public class JwtService {
         return key;
     }
 
+    private JwtParser getParser() {
+        if (parser == null) {
+            initKey(); // fallback si no fue inicializado
+        }
+        return parser;
+    }
+
     // ✅ Extrae el username (subject)
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -82,40 +140,115 @@ public class JwtService {
 
     // ✅ Parse completo del token
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token);
+    }
+
+    /**
+     * ✅ Claims de un token con firma válida y sin expirar; lanza JwtException si no lo es.
+     * La primera vez se verifica la firma; las siguientes, hasta su expiración, salen de la caché
+     */
+    public Claims verify(String token) {
+        if (verifiedTokens == null) {
+            return getParser().parseClaimsJws(token).getBody();
+        }
+        String hash = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(hash);
+        if (claims == null) {
+            claims = getParser().parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(hash, claims);
+            }
+        }
+        return claims;
     }
 
-    // ✅ Genera token con claims extra y roles
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // ✅ Genera el access token (corto) con id, rol y versión del usuario (strings y números, no GrantedAuthority)
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", userDetails.getAuthorities());
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole());
+            claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        } else {
+            userDetails.getAuthorities().stream().findFirst()
+                    .ifPresent(authority -> claims.put(CLAIM_ROLE, authority.getAuthority()));
+        }
 
+        return sign(claims, userDetails.getUsername(), accessTtl);
+    }
 
+    /**
+     * ✅ Genera el refresh token: de un solo uso (se rota en cada /refresh) y sin rol,
+     * que se vuelve a leer del usuario al emitir el siguiente access token
+     */
+    public String generateRefreshToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TYPE, TYPE_REFRESH);
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        return sign(claims, user.getUsername(), refreshTtl);
+    }
 
+    // Cada token lleva un jti propio: es la clave de TokenRevocations
+    private String sign(Map<String, Object> claims, String subject, Duration ttl) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000)) // 10 horas
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttl.toMillis()))
                 .signWith(getSignInKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    public boolean isRefreshToken(Claims claims) {
+        return TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class));
+    }
+
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+
     // ✅ Valida token
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    /**
+     * ✅ Principal a partir de claims ya verificados; vacío si el token no trae uid
+     * (emitido antes de los claims compactos)
+     */
+    public Optional<AuthenticatedUser> toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(userId.longValue(), claims.getSubject(),
+                claims.get(CLAIM_ROLE, String.class)));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // ✅ token_version con la que se firmó el token (0 si no la trae)
+    public int tokenVersion(Claims claims) {
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return version != null ? version.intValue() : 0;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // ✅ Valida claims ya verificados (sin volver a parsear el token)
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        if (userDetails instanceof User user && user.getTokenVersion() != tokenVersion(claims)) {
+            return false; // revocado
+        }
+        return claims.getSubject().equals(userDetails.getUsername())
+                && (claims.getExpiration() == null || claims.getExpiration().after(new Date()));
     }
 }
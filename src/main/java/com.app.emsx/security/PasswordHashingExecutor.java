@@ -0,0 +1,90 @@
+package com.app.emsx.security;
+
+import com.app.emsx.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordHashingExecutor
+ * -----------------------------------------------------
+ * ✔ Ejecuta el trabajo con BCrypt (verificar en el login, hashear en el registro)
+ *   en un pool propio de hash-threads hilos con cola acotada: una ráfaga de logins
+ *   ocupa como mucho esos núcleos y el resto atiende órdenes y catálogo
+ * ✔ Cola llena → 503 inmediato con Retry-After; lo mismo si la tarea no termina
+ *   en hash-timeout-ms
+ * ✔ El hilo de Tomcat solo espera el resultado (sin consumir CPU)
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public PasswordHashingExecutor(@Value("${emsx.auth.hash-threads:0}") int threads,
+                                   @Value("${emsx.auth.hash-queue:64}") int queueCapacity,
+                                   @Value("${emsx.auth.hash-timeout-ms:5000}") long timeoutMillis) {
+        // 0 = la mitad de los núcleos disponibles
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * ✅ Ejecuta la tarea en el pool y espera su resultado; las excepciones de la
+     * tarea (p. ej. BadCredentialsException) se relanzan tal cual
+     */
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException ex) {
+            throw busy();
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw busy();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+    }
+
+    private static ServiceUnavailableException busy() {
+        return new ServiceUnavailableException("Authentication service is busy, retry shortly", RETRY_AFTER_SECONDS);
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.emsx.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * RehashingBCryptPasswordEncoder
+ * -----------------------------------------------------
+ * ✔ BCrypt con work factor configurable (emsx.auth.bcrypt-strength)
+ * ✔ upgradeEncoding() pide re-hashear cualquier hash con otro costo, mayor o menor
+ *   (BCryptPasswordEncoder solo lo hace si es menor): bajar el costo para ganar
+ *   capacidad también se aplica a los usuarios existentes en su próximo login
+ */
+public class RehashingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public RehashingBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -1,8 +1,12 @@
 package com.app.emsx.security;
 
+import com.app.emsx.overload.ConcurrencyLimitFilter;
+import com.app.emsx.ratelimit.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -17,6 +21,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final AuthenticationProvider authenticationProvider;
 
     @Bean
@@ -31,6 +37,9 @@ public class SecurityConfig {
 
                 // 🔥 Rutas públicas reales (para evitar 403)
                 .authorizeHttpRequests(auth -> auth
+                        // Re-despacho interno al terminar una respuesta en streaming (ya autorizada)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         .requestMatchers(
                                 "/auth/**",
                                 "/api/auth/**",
@@ -40,6 +49,9 @@ public class SecurityConfig {
                                 "/v3/api-docs/**"
                         ).permitAll()
 
+                        // Vaciar la caché L2 completa solo lo puede pedir un administrador
+                        .requestMatchers(HttpMethod.DELETE, "/api/cache", "/api/cache/**").hasRole("ADMIN")
+
                         // Todo lo demás requiere JWT
                         .anyRequest().authenticated()
                 )
@@ -51,7 +63,11 @@ public class SecurityConfig {
 
                 // Provider y filtro
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Límite de peticiones por usuario (ya autenticado) o IP
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                // Límite de concurrencia adaptativo (descarta por prioridad ante sobrecarga)
+                .addFilterAfter(concurrencyLimitFilter, RateLimitFilter.class);
 
         return http.build();
     }
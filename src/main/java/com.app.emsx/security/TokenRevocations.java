@@ -0,0 +1,149 @@
+package com.app.emsx.security;
+
+import com.app.emsx.common.BloomFilter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenRevocations
+ * -----------------------------------------------------
+ * ✔ Lista de jti revocados (tabla revoked_tokens) con un Bloom filter en memoria:
+ *   para un token no revocado, isRevoked() son unos pocos accesos a memoria,
+ *   sin consulta a la base
+ * ✔ Un positivo del filtro (revocado, o falso positivo ≈ fpp) se confirma con una
+ *   consulta exacta por clave primaria
+ * ✔ Memoria acotada por revocation-capacity: las filas vencidas se purgan cada hora
+ *   y el filtro se reconstruye (al doble de tamaño si las vigentes ya no caben)
+ * ✔ Las revocaciones de otras instancias llegan cada revocation-sync-seconds
+ */
+@Slf4j
+@Component
+public class TokenRevocations implements SmartInitializingSingleton {
+
+    private static final String INSERT = "INSERT INTO revoked_tokens (jti, expires_at) VALUES (?, ?)"
+            + " ON CONFLICT (jti) DO NOTHING";
+    private static final String EXISTS = "SELECT count(*) FROM revoked_tokens WHERE jti = ?";
+    private static final String ACTIVE = "SELECT jti FROM revoked_tokens WHERE expires_at > now()";
+    private static final String SINCE = "SELECT jti FROM revoked_tokens WHERE revoked_at > ?";
+    private static final String PURGE = "DELETE FROM revoked_tokens WHERE expires_at <= now()";
+
+    // revoked_at es la hora de inicio de la transacción que revocó: una fila puede
+    // hacerse visible después de otra más nueva. El solape la recoge igual
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long capacity;
+    private final double fpp;
+    private final long syncSeconds;
+
+    private volatile BloomFilter filter;
+    private long added;
+    private Instant syncedUntil = Instant.EPOCH;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-revocations");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TokenRevocations(JdbcTemplate jdbcTemplate,
+                            @Value("${emsx.jwt.revocation-capacity:100000}") long capacity,
+                            @Value("${emsx.jwt.revocation-fpp:0.01}") double fpp,
+                            @Value("${emsx.jwt.revocation-sync-seconds:5}") long syncSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.fpp = fpp;
+        this.syncSeconds = syncSeconds;
+        this.filter = new BloomFilter(capacity, fpp);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+        scheduler.scheduleWithFixedDelay(() -> run(this::sync), syncSeconds, syncSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(() -> run(this::purge), 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * ✅ Revoca el jti hasta expiresAt; false si ya estaba revocado (p. ej. un refresh
+     * token que otra petición acaba de rotar)
+     */
+    public boolean revoke(String jti, Instant expiresAt) {
+        boolean inserted = jdbcTemplate.update(INSERT, jti, Timestamp.from(expiresAt)) > 0;
+        add(List.of(jti));
+        return inserted;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Integer matches = jdbcTemplate.queryForObject(EXISTS, Integer.class, jti);
+        return matches != null && matches > 0;
+    }
+
+    private synchronized void add(List<String> jtis) {
+        jtis.forEach(filter::put);
+        added += jtis.size();
+    }
+
+    private synchronized void sync() {
+        Instant from = syncedUntil.minusSeconds(SYNC_OVERLAP_SECONDS);
+        syncedUntil = now();
+        add(jdbcTemplate.queryForList(SINCE, String.class, Timestamp.from(from)));
+        if (added > filter.capacity()) {
+            // Con más claves que capacidad crece la tasa de falsos positivos
+            rebuild();
+        }
+    }
+
+    private synchronized void purge() {
+        int purged = jdbcTemplate.update(PURGE);
+        if (purged > 0) {
+            log.info("Tokens revocados vencidos purgados: {}", purged);
+        }
+        rebuild();
+    }
+
+    // Un Bloom filter no admite borrados: se reconstruye con los jti aún vigentes
+    private synchronized void rebuild() {
+        syncedUntil = now();
+        List<String> active = jdbcTemplate.queryForList(ACTIVE, String.class);
+        long size = capacity;
+        while (size < active.size() * 2L) {
+            size *= 2;
+        }
+        BloomFilter rebuilt = new BloomFilter(size, fpp);
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+        added = active.size();
+    }
+
+    private Instant now() {
+        return jdbcTemplate.queryForObject("SELECT now()", Timestamp.class).toInstant();
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            log.error("No se pudo actualizar la lista de tokens revocados", ex);
+        }
+    }
+}
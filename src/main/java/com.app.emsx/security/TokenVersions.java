@@ -0,0 +1,78 @@
+package com.app.emsx.security;
+
+import com.app.emsx.entities.User;
+import com.app.emsx.exceptions.ResourceNotFoundException;
+import com.app.emsx.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * TokenVersions
+ * -----------------------------------------------------
+ * ✔ Revocación de tokens sin estado: cada token lleva la token_version del usuario
+ *   al emitirse y deja de valer cuando la versión cambia
+ * ✔ La versión vigente se lee de users con una consulta por clave primaria y se
+ *   retiene token-version-ttl-seconds: ese es el retraso máximo de una revocación
+ *   hecha en otra instancia (en esta se invalida al momento)
+ */
+@Component
+public class TokenVersions {
+
+    private static final String CURRENT_VERSION = "SELECT token_version FROM users WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LoadingCache<Long, Integer> current;
+
+    public TokenVersions(JdbcTemplate jdbcTemplate,
+                         UserRepository userRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${emsx.jwt.token-version-ttl-seconds:30}") long ttlSeconds,
+                         @Value("${emsx.jwt.verified-cache-size:10000}") long maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.current = Caffeine.newBuilder()
+                // Una entrada por usuario activo: nunca más que tokens verificados en caché
+                .maximumSize(Math.max(maxSize, 1))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(this::load);
+    }
+
+    /**
+     * ✅ true si el token (emitido con esa versión) sigue vigente para el usuario
+     */
+    public boolean isCurrent(Long userId, int version) {
+        // null: el usuario ya no existe (no se cachea, Caffeine descarta los null)
+        Integer currentVersion = current.get(userId);
+        return currentVersion != null && currentVersion == version;
+    }
+
+    /**
+     * ✅ Revoca todos los tokens emitidos hasta ahora para el usuario
+     */
+    public void revokeAll(Long userId) {
+        // Por la entidad (y no con un UPDATE directo) para que la caché de segundo nivel
+        // de User quede al día: el próximo login firma con la versión nueva
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        });
+        current.invalidate(userId);
+    }
+
+    private Integer load(Long userId) {
+        List<Integer> versions = jdbcTemplate.queryForList(CURRENT_VERSION, Integer.class, userId);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+}
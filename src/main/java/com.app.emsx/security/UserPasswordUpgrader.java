@@ -0,0 +1,32 @@
+package com.app.emsx.security;
+
+import com.app.emsx.entities.User;
+import com.app.emsx.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * UserPasswordUpgrader
+ * -----------------------------------------------------
+ * ✔ Guarda el hash re-calculado tras un login correcto cuyo hash usaba otro
+ *   work factor (lo invoca DaoAuthenticationProvider, dentro del pool de hashing)
+ */
+@Service
+@RequiredArgsConstructor
+public class UserPasswordUpgrader implements UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("❌ Usuario no encontrado: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        return userRepository.save(user);
+    }
+}
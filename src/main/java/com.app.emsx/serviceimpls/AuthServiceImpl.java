@@ -2,13 +2,21 @@ package com.app.emsx.serviceimpls;
 
 import com.app.emsx.dtos.auth.AuthenticationRequest;
 import com.app.emsx.dtos.auth.AuthenticationResponse;
+import com.app.emsx.dtos.auth.RefreshTokenRequest;
 import com.app.emsx.dtos.auth.RegisterRequest;
 import com.app.emsx.entities.User;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.repositories.UserRepository;
+import com.app.emsx.security.AuthenticatedUser;
 import com.app.emsx.security.JwtService;
+import com.app.emsx.security.PasswordHashingExecutor;
+import com.app.emsx.security.TokenRevocations;
+import com.app.emsx.security.TokenVersions;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,6 +27,8 @@ import org.springframework.stereotype.Service;
  * ✔ Gestiona registro y autenticación de usuarios
  * ✔ Genera tokens JWT válidos con roles incluidos
  * ✔ Retorna la respuesta de autenticación al frontend
+ * ✔ BCrypt fuera de los hilos de Tomcat (PasswordHashingExecutor)
+ * ✔ Access token corto + refresh token rotativo (revocados en TokenRevocations)
  */
 @Service
 @RequiredArgsConstructor
@@ -28,6 +38,9 @@ public class AuthServiceImpl {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenVersions tokenVersions;
+    private final TokenRevocations tokenRevocations;
+    private final PasswordHashingExecutor passwordHashing;
 
     /**
      * ✅ Registrar un nuevo usuario (modo desarrollo con defaults)
@@ -53,21 +66,12 @@ public class AuthServiceImpl {
         );
 
         user.setEmail(normalizedEmail);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashing.execute(() -> passwordEncoder.encode(request.getPassword())));
         user.setRole("ROLE_ADMIN"); // Temporal para desarrollo
 
         userRepository.save(user);
 
-        String jwtToken = jwtService.generateToken(user);
-
-        return AuthenticationResponse.builder()
-                .token(jwtToken)
-                .userId(user.getId())
-                .email(user.getEmail())
-                .firstname(user.getFirstname())
-                .lastname(user.getLastname())
-                .role(user.getRole())
-                .build();
+        return issueTokens(user);
     }
 
     /**
@@ -75,20 +79,71 @@ public class AuthServiceImpl {
      */
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         String normalizedEmail = normalizeEmail(request.getEmail());
-        authenticationManager.authenticate(
+        // La verificación BCrypt (y el re-hash si cambió el costo) corre en el pool acotado
+        passwordHashing.execute(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         normalizedEmail,
                         request.getPassword()
                 )
-        );
+        ));
 
         User user = userRepository.findByEmail(normalizedEmail)
                 .orElseThrow(() -> new RuntimeException("❌ Usuario no encontrado"));
 
-        String jwtToken = jwtService.generateToken(user);
+        return issueTokens(user);
+    }
+
+    /**
+     * ✅ Rota el refresh token: lo revoca y emite un par nuevo. Un refresh token ya
+     * usado indica que alguien más lo tiene: se revocan todas las sesiones del usuario
+     */
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        Claims claims = verifyRefreshToken(request.getRefreshToken());
+        Long userId = jwtService.toPrincipal(claims)
+                .map(AuthenticatedUser::id)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        if (!tokenVersions.isCurrent(userId, jwtService.tokenVersion(claims))) {
+            throw new BadCredentialsException("Refresh token revoked");
+        }
+        if (!tokenRevocations.revoke(claims.getId(), claims.getExpiration().toInstant())) {
+            tokenVersions.revokeAll(userId);
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        return issueTokens(user);
+    }
+
+    /**
+     * ✅ Cierra la sesión: revoca el refresh token y, si viene, el access token en curso
+     */
+    public void logout(RefreshTokenRequest request, String accessToken) {
+        Claims refreshClaims = verifyRefreshToken(request.getRefreshToken());
+        tokenRevocations.revoke(refreshClaims.getId(), refreshClaims.getExpiration().toInstant());
+        if (accessToken != null) {
+            try {
+                Claims accessClaims = jwtService.verify(accessToken);
+                if (accessClaims.getId() != null && accessClaims.getSubject().equals(refreshClaims.getSubject())) {
+                    tokenRevocations.revoke(accessClaims.getId(), accessClaims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException ignored) {
+                // ya inválido: nada que revocar
+            }
+        }
+    }
+
+    /**
+     * ✅ Cierra todas las sesiones del usuario: revoca cada token emitido hasta ahora
+     */
+    public void revokeAllTokens(Long userId) {
+        tokenVersions.revokeAll(userId);
+    }
 
+    private AuthenticationResponse issueTokens(User user) {
         return AuthenticationResponse.builder()
-                .token(jwtToken)
+                .token(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user))
+                .expiresIn(jwtService.getAccessTtl().toSeconds())
                 .userId(user.getId())
                 .email(user.getEmail())
                 .firstname(user.getFirstname())
@@ -97,6 +152,19 @@ public class AuthServiceImpl {
                 .build();
     }
 
+    private Claims verifyRefreshToken(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtService.verify(refreshToken);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (!jwtService.isRefreshToken(claims) || claims.getId() == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return claims;
+    }
+
     private String normalizeEmail(String email) {
         return email == null ? null : email.trim().toLowerCase();
     }
@@ -0,0 +1,91 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.cache.CacheRegionStatsResponse;
+import com.app.emsx.entities.Product;
+import com.app.emsx.entities.Stock;
+import com.app.emsx.events.ProductsImportedEvent;
+import com.app.emsx.services.CacheService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CacheServiceImpl implements CacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheRegionStatsResponse> getRegionStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> mapToResponse(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    @Override
+    public void evictStocks(Collection<Long> stockIds) {
+        Cache cache = sessionFactory().getCache();
+        for (Long stockId : stockIds) {
+            cache.evictEntityData(Stock.class, stockId);
+        }
+    }
+
+    /**
+     * La importación masiva escribe products / stocks por SQL directo:
+     * se invalidan sus regiones después del commit
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductsImported(ProductsImportedEvent event) {
+        evictCatalog();
+    }
+
+    private void evictCatalog() {
+        Cache cache = sessionFactory().getCache();
+        cache.evictEntityData(Product.class);
+        cache.evictNaturalIdData(Product.class);
+        cache.evictEntityData(Stock.class);
+        cache.evictQueryRegions();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    private CacheRegionStatsResponse mapToResponse(String region, CacheRegionStatistics stats) {
+        if (stats == null) {
+            return null;
+        }
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        long lookups = hits + misses;
+        long elements = stats.getElementCountInMemory();
+        return CacheRegionStatsResponse.builder()
+                .region(region)
+                .hitCount(hits)
+                .missCount(misses)
+                .putCount(stats.getPutCount())
+                .hitRatio(lookups == 0 ? 0.0 : (double) hits / lookups)
+                .elementCountInMemory(elements < 0 ? null : elements)
+                .build();
+    }
+}
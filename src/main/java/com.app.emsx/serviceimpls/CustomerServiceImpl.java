@@ -1,5 +1,8 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.BatchLookup;
+import com.app.emsx.common.EntityStreams;
+import com.app.emsx.dtos.batch.BatchItemResponse;
 import com.app.emsx.dtos.customer.CustomerRequest;
 import com.app.emsx.dtos.customer.CustomerResponse;
 import com.app.emsx.dtos.order.OrderResponse;
@@ -7,22 +10,30 @@ import com.app.emsx.entities.Customer;
 import com.app.emsx.entities.Order;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.repositories.CustomerFieldsRepository;
 import com.app.emsx.repositories.CustomerRepository;
 import com.app.emsx.repositories.OrderRepository;
 import com.app.emsx.services.CustomerService;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerFieldsRepository customerFieldsRepository;
     private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -48,7 +59,11 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     @Transactional(readOnly = true)
-    public CustomerResponse getById(Long id) {
+    public CustomerResponse getById(Long id, FieldSet fields) {
+        if (!fields.isAll()) {
+            return customerFieldsRepository.findById(id, fields)
+                    .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + id));
+        }
         Customer customer = customerRepository.findByIdWithOrders(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + id));
         return mapToResponse(customer);
@@ -56,10 +71,20 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getAll() {
-        return customerRepository.findAllWithOrders().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public List<BatchItemResponse<Long, CustomerResponse>> getByIds(List<Long> ids, FieldSet fields) {
+        return BatchLookup.lookup(ids,
+                distinct -> customerFieldsRepository.findAllById(distinct, fields),
+                CustomerResponse::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public Stream<CustomerResponse> streamAll(FieldSet fields) {
+        if (!fields.isAll()) {
+            return customerFieldsRepository.streamAll(fields);
+        }
+        return EntityStreams.mapAndDetach(customerRepository.streamAllWithOrders(), entityManager, this::mapToResponse);
     }
 
     @Override
@@ -93,6 +118,7 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadType.BULK)
     public List<OrderResponse> getOrderHistory(Long customerId) {
         Customer customer = customerRepository.findByIdWithOrders(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
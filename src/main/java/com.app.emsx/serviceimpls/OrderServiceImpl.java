@@ -1,32 +1,54 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.BatchLookup;
+import com.app.emsx.common.ETags;
+import com.app.emsx.common.EntityStreams;
+import com.app.emsx.dtos.batch.BatchItemResponse;
 import com.app.emsx.dtos.order.OrderItemRequest;
 import com.app.emsx.dtos.order.OrderRequest;
 import com.app.emsx.dtos.order.OrderResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
 import com.app.emsx.entities.*;
+import com.app.emsx.events.OrderChangedEvent;
+import com.app.emsx.events.ShipmentStatusChangedEvent;
+import com.app.emsx.events.StockChangedEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
+import com.app.emsx.fields.FieldSet;
 import com.app.emsx.repositories.*;
 import com.app.emsx.services.OrderService;
+import com.app.emsx.sync.ChangeFeed;
+import com.app.emsx.tracking.TrackingCodeGenerator;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderFieldsRepository orderFieldsRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
     private final StockRepository stockRepository;
     private final ShipmentRepository shipmentRepository;
+    private final ChangeFeed changeFeed;
+    private final TrackingCodeGenerator trackingCodeGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -77,6 +99,7 @@ public class OrderServiceImpl implements OrderService {
             // Reducir stock
             stock.setQuantity(stock.getQuantity() - itemRequest.getQuantity());
             stockRepository.save(stock);
+            eventPublisher.publishEvent(StockChangedEvent.of(product.getId(), stock));
 
             total = total.add(subtotal);
         }
@@ -85,6 +108,7 @@ public class OrderServiceImpl implements OrderService {
         order.setTotal(total);
         // Order se mantiene en PENDING, no se crea shipment automáticamente
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(order));
 
         // Recargar con relaciones para el response
         order = orderRepository.findByIdWithRelations(order.getId())
@@ -94,7 +118,12 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public OrderResponse getById(Long id) {
+    public OrderResponse getById(Long id, FieldSet fields) {
+        if (!fields.isAll()) {
+            // Solo las asociaciones pedidas: sin fields se mantiene la lectura completa con JOIN FETCH
+            return orderFieldsRepository.findById(id, fields)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        }
         Order order = orderRepository.findByIdWithRelations(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
         return mapToResponse(order);
@@ -102,10 +131,37 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getAll() {
-        return orderRepository.findAllWithRelations().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public List<BatchItemResponse<Long, OrderResponse>> getByIds(List<Long> ids, FieldSet fields) {
+        return BatchLookup.lookup(ids,
+                distinct -> orderFieldsRepository.findAllById(distinct, fields),
+                OrderResponse::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getETag(Long id) {
+        // Incluye cliente, envío y productos de los ítems: todos forman parte del OrderResponse
+        return orderRepository.findVersionById(id)
+                .map(v -> ETags.of("order-" + id, v.getOrderVersion(), v.getCustomerVersion(),
+                        v.getShipmentId(), v.getShipmentVersion(), v.getItems(), v.getProductVersions()))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public Stream<OrderResponse> streamAll(FieldSet fields) {
+        if (!fields.isAll()) {
+            return orderFieldsRepository.streamAll(fields);
+        }
+        return EntityStreams.mapAndDetach(orderRepository.streamAllWithRelations(), entityManager, this::mapToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ChangesResponse<OrderResponse> getChanges(String since, int limit, FieldSet fields) {
+        return changeFeed.read(ChangeFeedRepository.Feed.ORDERS, since, limit,
+                ids -> orderFieldsRepository.findAllById(ids, fields), OrderResponse::getId);
     }
 
     @Override
@@ -146,12 +202,14 @@ public class OrderServiceImpl implements OrderService {
 
             stock.setQuantity(stock.getQuantity() - itemRequest.getQuantity());
             stockRepository.save(stock);
+            eventPublisher.publishEvent(StockChangedEvent.of(product.getId(), stock));
 
             additionalTotal = additionalTotal.add(subtotal);
         }
 
         order.setTotal(order.getTotal().add(additionalTotal));
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(order));
 
         // Recargar con relaciones para el response
         order = orderRepository.findByIdWithRelations(order.getId())
@@ -196,6 +254,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order.OrderStatus oldStatus = order.getStatus();
+        Shipment.ShipmentStatus oldShipmentStatus = order.getShipment() != null ? order.getShipment().getStatus() : null;
         order.setStatus(newStatus);
 
         // Lógica automática según el nuevo estado
@@ -204,7 +263,7 @@ public class OrderServiceImpl implements OrderService {
             Shipment shipment = order.getShipment();
             if (shipment == null) {
                 // Crear nuevo shipment
-                String trackingCode = "TRK-" + java.util.UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+                String trackingCode = trackingCodeGenerator.next();
                 shipment = Shipment.builder()
                         .trackingCode(trackingCode)
                         .status(Shipment.ShipmentStatus.OUT_FOR_DELIVERY)
@@ -224,7 +283,7 @@ public class OrderServiceImpl implements OrderService {
             Shipment shipment = order.getShipment();
             if (shipment == null) {
                 // Si no existe shipment, crear uno nuevo con estado DELIVERED
-                String trackingCode = "TRK-" + java.util.UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+                String trackingCode = trackingCodeGenerator.next();
                 shipment = Shipment.builder()
                         .trackingCode(trackingCode)
                         .status(Shipment.ShipmentStatus.DELIVERED)
@@ -247,7 +306,16 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
+        // El envío pudo crearse o cambiar de estado en cualquiera de las ramas anteriores
+        Shipment shipment = order.getShipment();
+        if (shipment != null && shipment.getStatus() != oldShipmentStatus) {
+            eventPublisher.publishEvent(ShipmentStatusChangedEvent.of(shipment));
+        }
+
         order = orderRepository.save(order);
+        if (newStatus != oldStatus) {
+            eventPublisher.publishEvent(OrderChangedEvent.of(order));
+        }
 
         // Recargar con relaciones para el response
         order = orderRepository.findByIdWithRelations(id)
@@ -270,11 +338,13 @@ public class OrderServiceImpl implements OrderService {
                 if (stock != null) {
                     stock.setQuantity(stock.getQuantity() + item.getQuantity());
                     stockRepository.save(stock);
+                    eventPublisher.publishEvent(StockChangedEvent.of(item.getProduct().getId(), stock));
                 }
             }
         }
 
         orderRepository.delete(order);
+        eventPublisher.publishEvent(OrderChangedEvent.deleted(order));
     }
 
     private Product loadActiveProduct(Long productId) {
@@ -0,0 +1,179 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.product.ProductImportResponse;
+import com.app.emsx.dtos.product.ProductRequest;
+import com.app.emsx.events.ProductsImportedEvent;
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.repositories.ProductImportRepository;
+import com.app.emsx.services.ProductImportService;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ProductImportServiceImpl
+ * -----------------------------------------------------
+ * ✔ Importación masiva de catálogo desde CSV o NDJSON en streaming
+ * ✔ Cada fila se valida con las mismas reglas que ProductRequest
+ * ✔ Las filas válidas se cargan por COPY y se fusionan con upsert por SKU
+ * ✔ SKU repetido: gana la última fila; las anteriores se reportan como reemplazadas
+ *   (y si la última fue rechazada, el SKU no se toca)
+ * ✔ El reporte de errores está acotado para que la memoria no crezca con el archivo
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ProductImportRepository productImportRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    @Workload(WorkloadType.BULK)
+    public ProductImportResponse importProducts(InputStream input, Format format) {
+        ErrorReport errors = new ErrorReport();
+        long totalRows = 0;
+        long staged;
+
+        productImportRepository.createStagingTable();
+        try (MappingIterator<ProductRequest> rows = openReader(input, format);
+             ProductImportRepository.StagingWriter staging = productImportRepository.openStagingWriter()) {
+
+            while (true) {
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Error estructural: el parser no puede continuar
+                    errors.add(totalRows + 1, null, "Archivo malformado: " + describe(e));
+                    break;
+                }
+
+                long rowNumber = ++totalRows;
+                ProductRequest request;
+                try {
+                    request = rows.nextValue();
+                } catch (IOException e) {
+                    errors.add(rowNumber, null, "Fila ilegible: " + describe(e));
+                    continue;
+                }
+
+                String violations = validate(request);
+                if (violations != null) {
+                    errors.add(rowNumber, request == null ? null : request.getSku(), violations);
+                    if (request != null && request.getSku() != null && !request.getSku().isBlank()) {
+                        staging.writeRejected(rowNumber, request.getSku().trim().toUpperCase());
+                    }
+                    continue;
+                }
+
+                request.setSku(request.getSku().trim().toUpperCase());
+                staging.write(rowNumber, request);
+            }
+            staged = staging.finish();
+        } catch (IOException | SQLException e) {
+            throw new BusinessRuleException("No se pudo importar el catálogo: " + e.getMessage(), e);
+        }
+
+        productImportRepository.dropSupersededRows(rs -> errors.add(rs.getLong(1), rs.getString(2),
+                rs.getBoolean(4)
+                        ? "Descartada: la última fila del mismo SKU (" + rs.getLong(3) + ") fue rechazada"
+                        : "Reemplazada por la fila " + rs.getLong(3) + " del mismo SKU"));
+        productImportRepository.rejectBelowReserved(rs -> errors.add(rs.getLong(1), rs.getString(2),
+                "El stock disponible no puede ser menor al stock reservado (" + rs.getInt(3) + ")"));
+
+        long[] merged = productImportRepository.mergeProducts();
+        productImportRepository.mergeStocks();
+        eventPublisher.publishEvent(new ProductsImportedEvent(merged[0], merged[1]));
+
+        return ProductImportResponse.builder()
+                .totalRows(totalRows)
+                .acceptedRows(totalRows - errors.count)
+                .rejectedRows(errors.count)
+                .created(merged[0])
+                .updated(merged[1])
+                .errors(errors.entries)
+                .errorsTruncated(errors.count > errors.entries.size())
+                .build();
+    }
+
+    private MappingIterator<ProductRequest> openReader(InputStream input, Format format) throws IOException {
+        if (format == Format.CSV) {
+            return CSV_MAPPER.readerFor(ProductRequest.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(input);
+        }
+        return objectMapper.readerFor(ProductRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValues(input);
+    }
+
+    private String validate(ProductRequest request) {
+        if (request == null) {
+            return "Fila vacía";
+        }
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private String describe(IOException e) {
+        return e instanceof JsonProcessingException jsonError ? jsonError.getOriginalMessage() : e.getMessage();
+    }
+
+    /**
+     * Reporte de errores por fila; guarda como máximo MAX_REPORTED_ERRORS entradas
+     */
+    private static class ErrorReport {
+        private final List<ProductImportResponse.RowError> entries = new ArrayList<>();
+        private long count;
+
+        void add(long row, String sku, String message) {
+            count++;
+            if (entries.size() < MAX_REPORTED_ERRORS) {
+                entries.add(ProductImportResponse.RowError.builder()
+                        .row(row)
+                        .sku(sku)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
@@ -1,28 +1,63 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.catalog.CatalogSnapshot;
+import com.app.emsx.common.BatchLookup;
+import com.app.emsx.common.ETags;
+import com.app.emsx.common.EntityStreams;
+import com.app.emsx.dtos.batch.BatchItemResponse;
+import com.app.emsx.dtos.product.ProductFacetRequest;
+import com.app.emsx.dtos.product.ProductFacetResponse;
 import com.app.emsx.dtos.product.ProductRequest;
 import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.dtos.product.ProductSearchResponse;
 import com.app.emsx.dtos.stock.StockResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
 import com.app.emsx.entities.Product;
 import com.app.emsx.entities.Stock;
+import com.app.emsx.events.ProductChangedEvent;
+import com.app.emsx.events.StockChangedEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.mappers.ProductMapper;
+import com.app.emsx.repositories.ChangeFeedRepository;
+import com.app.emsx.repositories.ProductFieldsRepository;
 import com.app.emsx.repositories.ProductRepository;
 import com.app.emsx.repositories.StockRepository;
+import com.app.emsx.search.ProductFacetIndex;
+import com.app.emsx.search.ProductSearchIndex;
 import com.app.emsx.services.ProductService;
+import com.app.emsx.sync.ChangeFeed;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
+    private final ProductFieldsRepository productFieldsRepository;
     private final StockRepository stockRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final CatalogSnapshot catalogSnapshot;
+    private final ChangeFeed changeFeed;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -55,12 +90,18 @@ public class ProductServiceImpl implements ProductService {
         // Recargar con relaciones para el response
         product = productRepository.findByIdWithStock(product.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found after creation"));
-        return mapToResponse(product);
+        ProductResponse response = mapToResponse(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(response, stockVersion(product)));
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ProductResponse getById(Long id) {
+    public ProductResponse getById(Long id, FieldSet fields) {
+        if (!fields.isAll()) {
+            return productFieldsRepository.findActiveById(id, fields)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        }
         Product product = productRepository.findByIdWithStock(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         ensureProductIsActive(product);
@@ -69,20 +110,68 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAll() {
-        return productRepository.findAllWithStock().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public List<BatchItemResponse<Long, ProductResponse>> getByIds(List<Long> ids, FieldSet fields) {
+        // Los productos dados de baja se informan como no encontrados, igual que en getById
+        return BatchLookup.lookup(ids,
+                distinct -> productFieldsRepository.findActiveByIds(distinct, fields),
+                ProductResponse::getId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getByCategory(String category) {
-        // Usar findAllWithStock y filtrar por categoría en memoria para evitar lazy loading
-        return productRepository.findAllWithStock().stream()
-                .filter(p -> p.getCategory() != null && p.getCategory().equals(category))
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public String getETag(Long id) {
+        return productRepository.findVersionById(id)
+                .map(v -> ETags.of("product-" + id, v.getProductVersion(), v.getStockId(), v.getStockVersion()))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCatalogETag() {
+        ProductRepository.CatalogVersion v = productRepository.findCatalogVersion();
+        // Solo las escrituras recientes del catálogo hacen depender el tag del horizonte
+        return v.getHorizon() == null
+                ? ETags.of("catalog", v.getSeq())
+                : ETags.of("catalog", v.getSeq(), v.getHorizon());
+    }
+
+    @Override
+    public CatalogSnapshot.Snapshot getCatalogSnapshot() {
+        // Precalculado en segundo plano: no toca la base de datos
+        return catalogSnapshot.current();
+    }
+
+    /*
+     * Los streamAll* devuelven un cursor de base de datos: deben consumirse dentro
+     * de la transacción del llamador (ApiResponseStreamer abre una de solo lectura).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public Stream<ProductResponse> streamAll(FieldSet fields) {
+        if (!fields.isAll()) {
+            return productFieldsRepository.streamAll(fields);
+        }
+        return EntityStreams.mapAndDetach(productRepository.streamAllWithStock(), entityManager, this::mapToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BULK)
+    public Stream<ProductResponse> streamByCategory(String category, FieldSet fields) {
+        if (!fields.isAll()) {
+            return productFieldsRepository.streamByCategory(category, fields);
+        }
+        return EntityStreams.mapAndDetach(productRepository.streamByCategoryWithStock(category),
+                entityManager, this::mapToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ChangesResponse<ProductResponse> getChanges(String since, int limit, FieldSet fields) {
+        // Un producto dado de baja se informa como deleted
+        return changeFeed.read(ChangeFeedRepository.Feed.PRODUCTS, since, limit,
+                ids -> productFieldsRepository.findActiveByIds(ids, fields), ProductResponse::getId);
     }
 
     @Override
@@ -115,6 +204,7 @@ public class ProductServiceImpl implements ProductService {
                             .build());
         }
 
+        Integer previousQuantity = stock.getQuantity();
         Integer updatedQuantity = request.getInitialStock();
         if (updatedQuantity != null) {
             int reserved = stock.getReservedQuantity() == null ? 0 : stock.getReservedQuantity();
@@ -125,10 +215,18 @@ public class ProductServiceImpl implements ProductService {
         }
         stockRepository.save(stock);
 
-        // Recargar con relaciones para el response
+        // Recargar con relaciones para el response (la consulta hace flush: la versión del stock ya es la final)
         product = productRepository.findByIdWithStock(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapToResponse(product);
+        ProductResponse response = mapToResponse(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(response, stockVersion(product)));
+        Stock updatedStock = product.getStock();
+        if (updatedStock != null && !Objects.equals(previousQuantity, updatedStock.getQuantity())) {
+            // Ya con flush: la versión es la final (StockChangedEvent.of asume una sin flush)
+            eventPublisher.publishEvent(new StockChangedEvent(id, updatedStock.getQuantity(),
+                    updatedStock.getReservedQuantity(), updatedStock.getVersion()));
+        }
+        return response;
     }
 
     @Override
@@ -141,6 +239,7 @@ public class ProductServiceImpl implements ProductService {
         }
         product.setStatus(Product.ProductStatus.INACTIVE);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(mapToResponse(product), stockVersion(product)));
     }
 
     @Override
@@ -168,40 +267,48 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAvailableProducts() {
-        // Obtener todos los productos con stock y filtrar los disponibles
-        return productRepository.findAllWithStock().stream()
-                .filter(this::isActive)
-                .filter(p -> {
-                    if (p.getStock() == null) return false;
-                    int available = p.getStock().getQuantity() - p.getStock().getReservedQuantity();
-                    return available > 0;
-                })
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @Workload(WorkloadType.BULK)
+    public Stream<ProductResponse> streamAvailableProducts(FieldSet fields) {
+        if (!fields.isAll()) {
+            return productFieldsRepository.streamAvailable(fields);
+        }
+        // El filtro de disponibilidad se resuelve en SQL en lugar de filtrar en memoria
+        return EntityStreams.mapAndDetach(productRepository.streamAvailableWithStock(),
+                entityManager, this::mapToResponse);
     }
 
-    private ProductResponse mapToResponse(Product product) {
-        ProductResponse.StockInfo stockInfo = null;
-        if (product.getStock() != null) {
-            Stock stock = product.getStock();
-            stockInfo = ProductResponse.StockInfo.builder()
-                    .quantity(stock.getQuantity())
-                    .reservedQuantity(stock.getReservedQuantity())
-                    .availableQuantity(stock.getQuantity() - stock.getReservedQuantity())
-                    .build();
+    @Override
+    public List<ProductSearchResponse> search(String query, int limit) {
+        // Servido íntegramente desde el índice en memoria (sin acceso a la base de datos)
+        return productSearchIndex.search(query, clampLimit(limit));
+    }
+
+    @Override
+    public List<String> suggest(String query, int limit) {
+        return productSearchIndex.suggest(query, clampLimit(limit));
+    }
+
+    @Override
+    public ProductFacetResponse filter(ProductFacetRequest request) {
+        // Por defecto solo se listan productos activos (como en el resto del catálogo)
+        if (request.getStatus() == null || request.getStatus().isEmpty()) {
+            request.setStatus(List.of(Product.ProductStatus.ACTIVE.name()));
         }
+        request.setPage(Math.max(request.getPage(), 0));
+        request.setSize(request.getSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(request.getSize(), MAX_PAGE_SIZE));
+        return productFacetIndex.query(request);
+    }
 
-        return ProductResponse.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .category(product.getCategory())
-                .sku(product.getSku())
-                .status(product.getStatus() != null ? product.getStatus().name() : Product.ProductStatus.ACTIVE.name())
-                .stock(stockInfo)
-                .build();
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    private ProductResponse mapToResponse(Product product) {
+        return ProductMapper.toResponse(product);
+    }
+
+    private Long stockVersion(Product product) {
+        return product.getStock() != null ? product.getStock().getVersion() : null;
     }
 
     private boolean isActive(Product product) {
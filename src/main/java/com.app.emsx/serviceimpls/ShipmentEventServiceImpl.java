@@ -0,0 +1,199 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.shipment.ShipmentEventBatchRequest;
+import com.app.emsx.dtos.shipment.ShipmentEventBatchResponse;
+import com.app.emsx.entities.Order;
+import com.app.emsx.entities.Shipment;
+import com.app.emsx.events.CarrierEventsAppliedEvent;
+import com.app.emsx.events.OrderChangedEvent;
+import com.app.emsx.events.ShipmentStatusChangedEvent;
+import com.app.emsx.repositories.ShipmentEventRepository;
+import com.app.emsx.services.ShipmentEventService;
+import com.app.emsx.tracking.TrackingCodeGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ShipmentEventServiceImpl
+ * -----------------------------------------------------
+ * ✔ Ingesta de eventos de transportistas por lotes (miles por petición)
+ * ✔ Descarta antes de tocar la base los duplicados exactos (tracking, estado, momento),
+ *   los códigos mal formados y los estados desconocidos
+ * ✔ Agrupa por envío y parte en bloques sin separar nunca los eventos de un mismo envío;
+ *   cada bloque es una transacción con una sola sentencia set-based
+ * ✔ Informa por evento: aplicado, reemplazado, tardío o rechazado (con motivo)
+ */
+@Service
+public class ShipmentEventServiceImpl implements ShipmentEventService {
+
+    private final ShipmentEventRepository shipmentEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ShipmentEventServiceImpl(ShipmentEventRepository shipmentEventRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${emsx.shipment.event-chunk-size:2000}") int chunkSize) {
+        this.shipmentEventRepository = shipmentEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ShipmentEventBatchResponse ingest(ShipmentEventBatchRequest request) {
+        List<ShipmentEventBatchRequest.Event> events = request.getEvents();
+        List<ShipmentEventBatchResponse.RejectedEvent> rejected = new ArrayList<>();
+        List<ShipmentEventRepository.NumberedEvent> accepted = new ArrayList<>(events.size());
+        Set<EventKey> seen = new HashSet<>();
+        int duplicates = 0;
+
+        for (int i = 0; i < events.size(); i++) {
+            ShipmentEventBatchRequest.Event event = events.get(i);
+            int lineNumber = i + 1;
+            String trackingCode = event.getTrackingCode().trim();
+            String status = event.getStatus().trim().toUpperCase();
+            if (!TrackingCodeGenerator.isWellFormed(trackingCode)) {
+                rejected.add(reject(lineNumber, event, "Código de tracking inválido"));
+                continue;
+            }
+            if (!isKnownStatus(status)) {
+                rejected.add(reject(lineNumber, event, "Invalid shipment status: " + event.getStatus()));
+                continue;
+            }
+            if (!seen.add(new EventKey(trackingCode, status, event.getOccurredAt()))) {
+                duplicates++;
+                continue;
+            }
+            accepted.add(new ShipmentEventRepository.NumberedEvent(lineNumber, trackingCode, status, event.getOccurredAt()));
+        }
+
+        // Agrupados por envío: un corte de bloque nunca cae entre dos eventos del mismo envío
+        accepted.sort(Comparator.comparing(ShipmentEventRepository.NumberedEvent::trackingCode));
+        Counts counts = new Counts();
+        int start = 0;
+        while (start < accepted.size()) {
+            int end = Math.min(start + chunkSize, accepted.size());
+            while (end < accepted.size()
+                    && accepted.get(end).trackingCode().equals(accepted.get(end - 1).trackingCode())) {
+                end++;
+            }
+            applyChunk(accepted.subList(start, end), counts, rejected);
+            start = end;
+        }
+
+        rejected.sort(Comparator.comparingInt(ShipmentEventBatchResponse.RejectedEvent::getLine));
+        return ShipmentEventBatchResponse.builder()
+                .totalEvents(events.size())
+                .applied(counts.applied)
+                .superseded(counts.superseded)
+                .duplicates(duplicates)
+                .stale(counts.stale)
+                .rejected(rejected.size())
+                .ordersCancelled(counts.ordersCancelled)
+                .rejectedEvents(rejected)
+                .build();
+    }
+
+    private void applyChunk(List<ShipmentEventRepository.NumberedEvent> chunk, Counts counts,
+                            List<ShipmentEventBatchResponse.RejectedEvent> rejected) {
+        Map<Integer, ShipmentEventRepository.NumberedEvent> eventsByLine = new HashMap<>();
+        chunk.forEach(e -> eventsByLine.put(e.lineNumber(), e));
+        List<ShipmentEventRepository.EventResult> results = transactionTemplate.execute(status -> {
+            List<ShipmentEventRepository.EventResult> eventResults = shipmentEventRepository.apply(chunk);
+            // Se entrega a los listeners después del commit de este bloque
+            eventPublisher.publishEvent(appliedEvent(eventResults, eventsByLine));
+            return eventResults;
+        });
+
+        for (ShipmentEventRepository.EventResult result : results) {
+            ShipmentEventRepository.NumberedEvent event = eventsByLine.get(result.lineNumber());
+            if (result.orderCancelled()) {
+                counts.ordersCancelled++;
+            }
+            switch (result.outcome()) {
+                case APPLIED -> counts.applied++;
+                case SUPERSEDED -> counts.superseded++;
+                case STALE -> counts.stale++;
+                case UNKNOWN_TRACKING_CODE -> rejected.add(reject(event, "Shipment not found with tracking code: "
+                        + event.trackingCode()));
+                case RETURN_NOT_ALLOWED -> rejected.add(reject(event,
+                        "Can only mark shipment as RETURNED when order is in CONFIRMED status"));
+                case SHIPMENT_RETURNED -> rejected.add(reject(event, "Cannot modify shipment with status RETURNED"));
+            }
+        }
+    }
+
+    private static CarrierEventsAppliedEvent appliedEvent(List<ShipmentEventRepository.EventResult> results,
+                                                          Map<Integer, ShipmentEventRepository.NumberedEvent> eventsByLine) {
+        List<ShipmentStatusChangedEvent> shipments = new ArrayList<>();
+        List<OrderChangedEvent> orders = new ArrayList<>();
+        for (ShipmentEventRepository.EventResult result : results) {
+            if (result.outcome() == ShipmentEventRepository.Outcome.APPLIED) {
+                ShipmentEventRepository.NumberedEvent event = eventsByLine.get(result.lineNumber());
+                shipments.add(new ShipmentStatusChangedEvent(result.shipmentId(), event.trackingCode(),
+                        result.orderId(), result.customerId(), Shipment.ShipmentStatus.valueOf(event.status()),
+                        event.occurredAt()));
+            }
+            if (result.orderCancelled()) {
+                orders.add(new OrderChangedEvent(result.orderId(), result.customerId(),
+                        Order.OrderStatus.CANCELLED, result.orderTotal(), false));
+            }
+        }
+        return new CarrierEventsAppliedEvent(shipments, orders);
+    }
+
+    private static boolean isKnownStatus(String status) {
+        for (Shipment.ShipmentStatus value : Shipment.ShipmentStatus.values()) {
+            if (value.name().equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ShipmentEventBatchResponse.RejectedEvent reject(int lineNumber, ShipmentEventBatchRequest.Event event,
+                                                                  String reason) {
+        return ShipmentEventBatchResponse.RejectedEvent.builder()
+                .line(lineNumber)
+                .trackingCode(event.getTrackingCode())
+                .status(event.getStatus())
+                .reason(reason)
+                .build();
+    }
+
+    private static ShipmentEventBatchResponse.RejectedEvent reject(ShipmentEventRepository.NumberedEvent event,
+                                                                  String reason) {
+        return ShipmentEventBatchResponse.RejectedEvent.builder()
+                .line(event.lineNumber())
+                .trackingCode(event.trackingCode())
+                .status(event.status())
+                .reason(reason)
+                .build();
+    }
+
+    private record EventKey(String trackingCode, String status, Instant occurredAt) {
+    }
+
+    private static final class Counts {
+        private int applied;
+        private int superseded;
+        private int stale;
+        private int ordersCancelled;
+    }
+}
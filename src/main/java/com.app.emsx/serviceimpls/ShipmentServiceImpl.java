@@ -1,28 +1,52 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.BatchLookup;
+import com.app.emsx.common.ETags;
+import com.app.emsx.common.EntityStreams;
+import com.app.emsx.dtos.batch.BatchItemResponse;
+import com.app.emsx.dtos.shipment.ShipmentHistoryResponse;
 import com.app.emsx.dtos.shipment.ShipmentRequest;
 import com.app.emsx.dtos.shipment.ShipmentResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
 import com.app.emsx.entities.Order;
 import com.app.emsx.entities.Shipment;
+import com.app.emsx.events.OrderChangedEvent;
+import com.app.emsx.events.ShipmentStatusChangedEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
+import com.app.emsx.fields.FieldSet;
+import com.app.emsx.repositories.ChangeFeedRepository;
 import com.app.emsx.repositories.OrderRepository;
+import com.app.emsx.repositories.ShipmentHistoryRepository;
+import com.app.emsx.repositories.ShipmentFieldsRepository;
 import com.app.emsx.repositories.ShipmentRepository;
 import com.app.emsx.services.ShipmentService;
+import com.app.emsx.sync.ChangeFeed;
+import com.app.emsx.tracking.TrackingCodeGenerator;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ShipmentServiceImpl implements ShipmentService {
 
     private final ShipmentRepository shipmentRepository;
+    private final ShipmentFieldsRepository shipmentFieldsRepository;
     private final OrderRepository orderRepository;
+    private final ChangeFeed changeFeed;
+    private final TrackingCodeGenerator trackingCodeGenerator;
+    private final ShipmentHistoryRepository shipmentHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -35,8 +59,8 @@ public class ShipmentServiceImpl implements ShipmentService {
             throw new BusinessRuleException("Order already has a shipment");
         }
 
-        // Generar código de tracking único
-        String trackingCode = "TRK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        // Generar código de tracking único (sin consultar la base)
+        String trackingCode = trackingCodeGenerator.next();
 
         Shipment shipment = Shipment.builder()
                 .trackingCode(trackingCode)
@@ -50,6 +74,8 @@ public class ShipmentServiceImpl implements ShipmentService {
         order.setShipment(shipment);
         order.setStatus(Order.OrderStatus.SHIPPED);
         orderRepository.save(order);
+        eventPublisher.publishEvent(ShipmentStatusChangedEvent.of(shipment));
+        eventPublisher.publishEvent(OrderChangedEvent.of(order));
 
         // Recargar con relaciones para el response
         shipment = shipmentRepository.findByIdWithOrder(shipment.getId())
@@ -59,7 +85,11 @@ public class ShipmentServiceImpl implements ShipmentService {
 
     @Override
     @Transactional(readOnly = true)
-    public ShipmentResponse getById(Long id) {
+    public ShipmentResponse getById(Long id, FieldSet fields) {
+        if (!fields.isAll()) {
+            return shipmentFieldsRepository.findById(id, fields)
+                    .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with id: " + id));
+        }
         Shipment shipment = shipmentRepository.findByIdWithOrder(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with id: " + id));
         return mapToResponse(shipment);
@@ -67,11 +97,19 @@ public class ShipmentServiceImpl implements ShipmentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ShipmentResponse> getAll() {
-        return shipmentRepository.findAllWithOrder().stream()
-                .map(this::mapToResponse)
-                .filter(response -> response != null)
-                .collect(Collectors.toList());
+    @Workload(WorkloadType.BULK)
+    public Stream<ShipmentResponse> streamAll(FieldSet fields) {
+        if (!fields.isAll()) {
+            return shipmentFieldsRepository.streamAll(fields);
+        }
+        return EntityStreams.mapAndDetach(shipmentRepository.streamAllWithOrder(), entityManager, this::mapToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ChangesResponse<ShipmentResponse> getChanges(String since, int limit, FieldSet fields) {
+        return changeFeed.read(ChangeFeedRepository.Feed.SHIPMENTS, since, limit,
+                ids -> shipmentFieldsRepository.findAllById(ids, fields), ShipmentResponse::getId);
     }
 
     @Override
@@ -103,8 +141,12 @@ public class ShipmentServiceImpl implements ShipmentService {
             }
         }
 
+        Shipment.ShipmentStatus oldStatus = shipment.getStatus();
         shipment.setStatus(newStatus);
         shipment = shipmentRepository.save(shipment);
+        if (newStatus != oldStatus) {
+            eventPublisher.publishEvent(ShipmentStatusChangedEvent.of(shipment));
+        }
 
         // Cuando Shipment pasa a RETURNED → Order pasa a CANCELLED
         if (newStatus == Shipment.ShipmentStatus.RETURNED) {
@@ -112,6 +154,7 @@ public class ShipmentServiceImpl implements ShipmentService {
             if (order != null && order.getStatus() != Order.OrderStatus.CANCELLED) {
                 order.setStatus(Order.OrderStatus.CANCELLED);
                 orderRepository.save(order);
+                eventPublisher.publishEvent(OrderChangedEvent.of(order));
             }
         }
 
@@ -123,7 +166,26 @@ public class ShipmentServiceImpl implements ShipmentService {
 
     @Override
     @Transactional(readOnly = true)
-    public ShipmentResponse trackByOrderId(Long orderId) {
+    public List<ShipmentHistoryResponse> getHistory(Long id) {
+        Shipment shipment = shipmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with id: " + id));
+        return shipmentHistoryRepository.findByShipment(shipment.getId(), shipment.getCreatedAt()).stream()
+                .map(row -> ShipmentHistoryResponse.builder()
+                        .status(row.status())
+                        .occurredAt(row.occurredAt())
+                        .recordedAt(row.recordedAt())
+                        .source(row.source().name())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ShipmentResponse trackByOrderId(Long orderId, FieldSet fields) {
+        if (!fields.isAll()) {
+            return shipmentFieldsRepository.findByOrderId(orderId, fields)
+                    .orElseThrow(() -> new ResourceNotFoundException("Shipment not found for order id: " + orderId));
+        }
         Shipment shipment = shipmentRepository.findByOrderId(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment not found for order id: " + orderId));
         return mapToResponse(shipment);
@@ -131,7 +193,14 @@ public class ShipmentServiceImpl implements ShipmentService {
 
     @Override
     @Transactional(readOnly = true)
-    public ShipmentResponse trackByTrackingCode(String trackingCode) {
+    public ShipmentResponse trackByTrackingCode(String trackingCode, FieldSet fields) {
+        if (!TrackingCodeGenerator.isWellFormed(trackingCode)) {
+            throw new ResourceNotFoundException("Shipment not found with tracking code: " + trackingCode);
+        }
+        if (!fields.isAll()) {
+            return shipmentFieldsRepository.findByTrackingCode(trackingCode, fields)
+                    .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with tracking code: " + trackingCode));
+        }
         Shipment shipment = shipmentRepository.findByTrackingCode(trackingCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with tracking code: " + trackingCode));
         // Recargar con relaciones para el response
@@ -141,6 +210,30 @@ public class ShipmentServiceImpl implements ShipmentService {
         return mapToResponse(shipment);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BatchItemResponse<String, ShipmentResponse>> trackByTrackingCodes(
+            List<String> trackingCodes, FieldSet fields) {
+        return BatchLookup.lookup(trackingCodes,
+                distinct -> {
+                    // Los mal formados quedan como no encontrados sin llegar a la consulta
+                    List<String> wellFormed = distinct.stream().filter(TrackingCodeGenerator::isWellFormed).toList();
+                    return wellFormed.isEmpty() ? List.of() : shipmentFieldsRepository.findByTrackingCodes(wellFormed, fields);
+                },
+                ShipmentResponse::getTrackingCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTrackingETag(String trackingCode) {
+        if (!TrackingCodeGenerator.isWellFormed(trackingCode)) {
+            return null;
+        }
+        return shipmentRepository.findVersionByTrackingCode(trackingCode)
+                .map(v -> ETags.of("shipment", v.getShipmentId(), v.getShipmentVersion(), v.getOrderVersion()))
+                .orElse(null);
+    }
+
     @Override
     @Transactional
     public void delete(Long id) {
@@ -0,0 +1,41 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.sql.SqlEndpointStatsResponse;
+import com.app.emsx.services.SqlStatsService;
+import com.app.emsx.sql.SqlMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SqlStatsServiceImpl implements SqlStatsService {
+
+    private final SqlMetrics sqlMetrics;
+
+    /**
+     * Los endpoints con más sentencias en total primero
+     */
+    @Override
+    public List<SqlEndpointStatsResponse> getEndpointStats() {
+        return sqlMetrics.totals().stream()
+                .sorted(Comparator.comparingLong(SqlMetrics.EndpointTotals::statements).reversed())
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    private SqlEndpointStatsResponse mapToResponse(SqlMetrics.EndpointTotals totals) {
+        double requests = Math.max(1, totals.requests());
+        return SqlEndpointStatsResponse.builder()
+                .endpoint(totals.endpoint())
+                .requests(totals.requests())
+                .averageStatements(totals.statements() / requests)
+                .maxStatements(totals.maxStatements())
+                .averageRows(totals.rows() / requests)
+                .averageJdbcMillis(totals.jdbcNanos() / requests / 1_000_000.0)
+                .suspectedNPlusOne(totals.nPlusOneDetections())
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.stock.StockAdjustmentRequest;
+import com.app.emsx.dtos.stock.StockAdjustmentResponse;
+import com.app.emsx.events.StockChangedEvent;
+import com.app.emsx.repositories.StockAdjustmentRepository;
+import com.app.emsx.services.CacheService;
+import com.app.emsx.services.StockService;
+import com.app.emsx.workload.Workload;
+import com.app.emsx.workload.WorkloadType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * StockServiceImpl
+ * -----------------------------------------------------
+ * ✔ Ajustes masivos de stock (conteos cíclicos de almacén)
+ * ✔ Cantidades absolutas o delta, por id de producto o por SKU
+ * ✔ Cada bloque de líneas se aplica en su propia transacción con una sentencia set-based
+ * ✔ Las líneas rechazadas se reportan con su motivo; el resto se confirma igualmente
+ * ✔ Si un bloque falla (deadlock, statement_timeout, conexión perdida) se revierte solo ese
+ *   bloque: sus líneas se reportan rechazadas con la causa y los bloques ya confirmados
+ *   quedan en la respuesta (reintentar solo las rechazadas no duplica los DELTA)
+ * ✔ Un producto repetido en la solicitud se aplica solo en su primera línea, sea cual sea
+ *   el bloque en que caigan las demás
+ */
+@Slf4j
+@Service
+public class StockServiceImpl implements StockService {
+
+    private static final String DUPLICATE_PRODUCT = "El producto aparece más de una vez en la solicitud";
+
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final CacheService cacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public StockServiceImpl(StockAdjustmentRepository stockAdjustmentRepository,
+                            CacheService cacheService,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${emsx.stock.adjustment-chunk-size:1000}") int chunkSize) {
+        this.stockAdjustmentRepository = stockAdjustmentRepository;
+        this.cacheService = cacheService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Workload(WorkloadType.BULK)
+    public StockAdjustmentResponse applyAdjustments(StockAdjustmentRequest request) {
+        List<StockAdjustmentResponse.RejectedLine> rejected = new ArrayList<>();
+        List<StockAdjustmentRepository.NumberedLine> pending = new ArrayList<>(chunkSize);
+        int applied = 0;
+
+        List<StockAdjustmentRequest.Line> lines = request.getLines();
+        Set<String> skus = new HashSet<>();
+        for (StockAdjustmentRequest.Line line : lines) {
+            if (line.getProductId() == null && line.getSku() != null && !line.getSku().isBlank()) {
+                line.setSku(line.getSku().trim().toUpperCase());
+                skus.add(line.getSku());
+            }
+        }
+        // Duplicados sobre toda la solicitud (no por bloque): el resultado no depende de chunk-size
+        Map<String, Long> productIdsBySku = stockAdjustmentRepository.findProductIdsBySku(skus);
+        Set<Long> seenProducts = new HashSet<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            StockAdjustmentRequest.Line line = lines.get(i);
+            int lineNumber = i + 1;
+            if (line.getProductId() == null && (line.getSku() == null || line.getSku().isBlank())) {
+                rejected.add(reject(lineNumber, line, "Se requiere productId o sku"));
+                continue;
+            }
+            Long productId = line.getProductId() != null ? line.getProductId() : productIdsBySku.get(line.getSku());
+            if (productId != null && !seenProducts.add(productId)) {
+                rejected.add(reject(lineNumber, line, DUPLICATE_PRODUCT));
+                continue;
+            }
+            pending.add(new StockAdjustmentRepository.NumberedLine(lineNumber, line));
+            if (pending.size() == chunkSize) {
+                applied += applyChunk(pending, rejected);
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            applied += applyChunk(pending, rejected);
+        }
+
+        rejected.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+        return StockAdjustmentResponse.builder()
+                .totalLines(lines.size())
+                .applied(applied)
+                .rejected(rejected.size())
+                .rejectedLines(rejected)
+                .build();
+    }
+
+    private int applyChunk(List<StockAdjustmentRepository.NumberedLine> chunk,
+                           List<StockAdjustmentResponse.RejectedLine> rejected) {
+        List<StockAdjustmentRepository.LineResult> results;
+        try {
+            results = transactionTemplate.execute(status -> {
+                List<StockAdjustmentRepository.LineResult> lineResults = stockAdjustmentRepository.adjust(chunk);
+                for (StockAdjustmentRepository.LineResult result : lineResults) {
+                    if (result.applied()) {
+                        // Se entrega a los listeners después del commit de este bloque
+                        eventPublisher.publishEvent(new StockChangedEvent(
+                                result.productId(), result.quantity(), result.reservedQuantity(), result.version()));
+                    }
+                }
+                return lineResults;
+            });
+        } catch (DataAccessException | TransactionException e) {
+            // Los bloques anteriores ya están confirmados: no propagar, reportar este bloque
+            log.warn("Bloque de ajustes de stock revertido (líneas {}..{})",
+                    chunk.get(0).lineNumber(), chunk.get(chunk.size() - 1).lineNumber(), e);
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage()).lines().findFirst().orElse("");
+            String reason = "Bloque revertido por un error de base de datos, reintentar: " + cause;
+            chunk.forEach(l -> rejected.add(reject(l.lineNumber(), l.line(), reason)));
+            return 0;
+        }
+
+        Map<Integer, StockAdjustmentRequest.Line> linesByNumber = new HashMap<>();
+        chunk.forEach(l -> linesByNumber.put(l.lineNumber(), l.line()));
+
+        // El UPDATE no pasa por Hibernate: invalidar las entradas de stock cacheadas
+        List<Long> stockIds = new ArrayList<>();
+        int applied = 0;
+        for (StockAdjustmentRepository.LineResult result : results) {
+            if (result.applied()) {
+                applied++;
+                stockIds.add(result.stockId());
+            } else {
+                StockAdjustmentRequest.Line line = linesByNumber.get(result.lineNumber());
+                rejected.add(reject(result.lineNumber(), line, rejectionReason(result, line)));
+            }
+        }
+        cacheService.evictStocks(stockIds);
+        return applied;
+    }
+
+    private String rejectionReason(StockAdjustmentRepository.LineResult result, StockAdjustmentRequest.Line line) {
+        if (result.productId() == null) {
+            return "Producto no encontrado";
+        }
+        if (result.occurrence() > 1) {
+            // SKU reasignado entre la resolución previa y el bloque
+            return DUPLICATE_PRODUCT;
+        }
+        if (result.stockId() == null) {
+            return "Stock not found for product id: " + result.productId();
+        }
+        if (line.getMode() == StockAdjustmentRequest.Mode.DELTA && result.previousQuantity() != null
+                && (long) result.previousQuantity() + line.getQuantity() > Integer.MAX_VALUE) {
+            return "La cantidad resultante excede el máximo permitido (" + Integer.MAX_VALUE + ")";
+        }
+        return "El stock disponible no puede ser menor al stock reservado (" + result.previousReserved() + ")";
+    }
+
+    private StockAdjustmentResponse.RejectedLine reject(int lineNumber, StockAdjustmentRequest.Line line, String reason) {
+        return StockAdjustmentResponse.RejectedLine.builder()
+                .line(lineNumber)
+                .productId(line != null ? line.getProductId() : null)
+                .sku(line != null ? line.getSku() : null)
+                .reason(reason)
+                .build();
+    }
+}
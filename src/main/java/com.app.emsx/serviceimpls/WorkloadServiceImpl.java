@@ -0,0 +1,62 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.workload.WorkloadPoolStatsResponse;
+import com.app.emsx.overload.PoolWaitMonitor;
+import com.app.emsx.replica.ReadReplicas;
+import com.app.emsx.services.WorkloadService;
+import com.app.emsx.workload.WorkloadProperties;
+import com.app.emsx.workload.WorkloadRoutingDataSource;
+import com.app.emsx.workload.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class WorkloadServiceImpl implements WorkloadService {
+
+    private static final String PRIMARY = "primary";
+
+    private final WorkloadRoutingDataSource workloadRoutingDataSource;
+    private final ReadReplicas readReplicas;
+    private final WorkloadProperties workloadProperties;
+    private final PoolWaitMonitor poolWaitMonitor;
+
+    @Override
+    public List<WorkloadPoolStatsResponse> getPoolStats() {
+        List<WorkloadPoolStatsResponse> responses = new ArrayList<>();
+        workloadRoutingDataSource.pools().forEach((workload, dataSource) ->
+                responses.add(mapToResponse(PRIMARY, true, workload, dataSource)));
+        for (ReadReplicas.Replica replica : readReplicas.replicas()) {
+            replica.pools().forEach((workload, dataSource) ->
+                    responses.add(mapToResponse(replica.name(), replica.isHealthy(), workload, dataSource)));
+        }
+        return responses;
+    }
+
+    private WorkloadPoolStatsResponse mapToResponse(String target, boolean available,
+                                                    WorkloadType workload, HikariDataSource dataSource) {
+        PoolWaitMonitor.Totals totals = poolWaitMonitor.totals(dataSource.getPoolName());
+        WorkloadPoolStatsResponse.WorkloadPoolStatsResponseBuilder builder = WorkloadPoolStatsResponse.builder()
+                .workload(workload.name())
+                .target(target)
+                .available(available)
+                .poolName(dataSource.getPoolName())
+                .maximumPoolSize(dataSource.getMaximumPoolSize())
+                .statementTimeoutMs(workloadProperties.pool(workload).getStatementTimeoutMs())
+                .acquisitions(totals.acquisitions())
+                .averageAcquireMillis(totals.averageNanos() / 1_000_000.0)
+                .acquireTimeouts(totals.timeouts());
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            builder.activeConnections(pool.getActiveConnections())
+                    .idleConnections(pool.getIdleConnections())
+                    .threadsAwaitingConnection(pool.getThreadsAwaitingConnection());
+        }
+        return builder.build();
+    }
+}
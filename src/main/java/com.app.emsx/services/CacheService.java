@@ -0,0 +1,12 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.cache.CacheRegionStatsResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CacheService {
+    List<CacheRegionStatsResponse> getRegionStats();
+    void evictAll();
+    void evictStocks(Collection<Long> stockIds);
+}
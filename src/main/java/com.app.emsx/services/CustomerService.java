@@ -1,15 +1,19 @@
 package com.app.emsx.services;
 
+import com.app.emsx.dtos.batch.BatchItemResponse;
 import com.app.emsx.dtos.customer.CustomerRequest;
 import com.app.emsx.dtos.customer.CustomerResponse;
 import com.app.emsx.dtos.order.OrderResponse;
+import com.app.emsx.fields.FieldSet;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CustomerService {
     CustomerResponse create(CustomerRequest request);
-    CustomerResponse getById(Long id);
-    List<CustomerResponse> getAll();
+    CustomerResponse getById(Long id, FieldSet fields);
+    List<BatchItemResponse<Long, CustomerResponse>> getByIds(List<Long> ids, FieldSet fields);
+    Stream<CustomerResponse> streamAll(FieldSet fields);
     CustomerResponse update(Long id, CustomerRequest request);
     void delete(Long id);
     List<OrderResponse> getOrderHistory(Long customerId);
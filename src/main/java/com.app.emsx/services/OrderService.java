@@ -1,14 +1,21 @@
 package com.app.emsx.services;
 
+import com.app.emsx.dtos.batch.BatchItemResponse;
 import com.app.emsx.dtos.order.OrderRequest;
 import com.app.emsx.dtos.order.OrderResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
+import com.app.emsx.fields.FieldSet;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderService {
     OrderResponse create(OrderRequest request);
-    OrderResponse getById(Long id);
-    List<OrderResponse> getAll();
+    OrderResponse getById(Long id, FieldSet fields);
+    List<BatchItemResponse<Long, OrderResponse>> getByIds(List<Long> ids, FieldSet fields);
+    String getETag(Long id);
+    Stream<OrderResponse> streamAll(FieldSet fields);
+    ChangesResponse<OrderResponse> getChanges(String since, int limit, FieldSet fields);
     OrderResponse addOrderItems(Long orderId, List<com.app.emsx.dtos.order.OrderItemRequest> items);
     OrderResponse updateStatus(Long id, String status);
     void delete(Long id);
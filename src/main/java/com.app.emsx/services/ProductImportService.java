@@ -0,0 +1,14 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.product.ProductImportResponse;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+    ProductImportResponse importProducts(InputStream input, Format format);
+
+    enum Format {
+        CSV,
+        NDJSON
+    }
+}
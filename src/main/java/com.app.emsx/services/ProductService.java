@@ -1,20 +1,36 @@
 package com.app.emsx.services;
 
+import com.app.emsx.catalog.CatalogSnapshot;
+import com.app.emsx.dtos.batch.BatchItemResponse;
+import com.app.emsx.dtos.product.ProductFacetRequest;
+import com.app.emsx.dtos.product.ProductFacetResponse;
 import com.app.emsx.dtos.product.ProductRequest;
 import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.dtos.product.ProductSearchResponse;
 import com.app.emsx.dtos.stock.StockResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
+import com.app.emsx.fields.FieldSet;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductService {
     ProductResponse create(ProductRequest request);
-    ProductResponse getById(Long id);
-    List<ProductResponse> getAll();
-    List<ProductResponse> getByCategory(String category);
+    ProductResponse getById(Long id, FieldSet fields);
+    List<BatchItemResponse<Long, ProductResponse>> getByIds(List<Long> ids, FieldSet fields);
+    String getETag(Long id);
+    String getCatalogETag();
+    CatalogSnapshot.Snapshot getCatalogSnapshot();
+    Stream<ProductResponse> streamAll(FieldSet fields);
+    Stream<ProductResponse> streamByCategory(String category, FieldSet fields);
+    ChangesResponse<ProductResponse> getChanges(String since, int limit, FieldSet fields);
     ProductResponse update(Long id, ProductRequest request);
     void delete(Long id);
     StockResponse getStock(Long productId);
-    List<ProductResponse> getAvailableProducts();
+    Stream<ProductResponse> streamAvailableProducts(FieldSet fields);
+    List<ProductSearchResponse> search(String query, int limit);
+    List<String> suggest(String query, int limit);
+    ProductFacetResponse filter(ProductFacetRequest request);
 }
 
 
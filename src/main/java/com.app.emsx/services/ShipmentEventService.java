@@ -0,0 +1,8 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.shipment.ShipmentEventBatchRequest;
+import com.app.emsx.dtos.shipment.ShipmentEventBatchResponse;
+
+public interface ShipmentEventService {
+    ShipmentEventBatchResponse ingest(ShipmentEventBatchRequest request);
+}
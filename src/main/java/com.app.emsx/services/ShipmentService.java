@@ -1,17 +1,26 @@
 package com.app.emsx.services;
 
+import com.app.emsx.dtos.batch.BatchItemResponse;
+import com.app.emsx.dtos.shipment.ShipmentHistoryResponse;
 import com.app.emsx.dtos.shipment.ShipmentRequest;
 import com.app.emsx.dtos.shipment.ShipmentResponse;
+import com.app.emsx.dtos.sync.ChangesResponse;
+import com.app.emsx.fields.FieldSet;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ShipmentService {
     ShipmentResponse create(ShipmentRequest request);
-    ShipmentResponse getById(Long id);
-    List<ShipmentResponse> getAll();
+    ShipmentResponse getById(Long id, FieldSet fields);
+    Stream<ShipmentResponse> streamAll(FieldSet fields);
+    ChangesResponse<ShipmentResponse> getChanges(String since, int limit, FieldSet fields);
     ShipmentResponse updateStatus(Long id, String status);
-    ShipmentResponse trackByOrderId(Long orderId);
-    ShipmentResponse trackByTrackingCode(String trackingCode);
+    List<ShipmentHistoryResponse> getHistory(Long id);
+    ShipmentResponse trackByOrderId(Long orderId, FieldSet fields);
+    ShipmentResponse trackByTrackingCode(String trackingCode, FieldSet fields);
+    List<BatchItemResponse<String, ShipmentResponse>> trackByTrackingCodes(List<String> trackingCodes, FieldSet fields);
+    String getTrackingETag(String trackingCode);
     void delete(Long id);
 }
 
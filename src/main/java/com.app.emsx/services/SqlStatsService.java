@@ -0,0 +1,9 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.sql.SqlEndpointStatsResponse;
+
+import java.util.List;
+
+public interface SqlStatsService {
+    List<SqlEndpointStatsResponse> getEndpointStats();
+}
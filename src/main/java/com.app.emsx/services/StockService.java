@@ -0,0 +1,8 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.stock.StockAdjustmentRequest;
+import com.app.emsx.dtos.stock.StockAdjustmentResponse;
+
+public interface StockService {
+    StockAdjustmentResponse applyAdjustments(StockAdjustmentRequest request);
+}
@@ -0,0 +1,9 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.workload.WorkloadPoolStatsResponse;
+
+import java.util.List;
+
+public interface WorkloadService {
+    List<WorkloadPoolStatsResponse> getPoolStats();
+}
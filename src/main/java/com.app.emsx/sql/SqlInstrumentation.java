@@ -0,0 +1,95 @@
+package com.app.emsx.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * SqlInstrumentation
+ * -----------------------------------------------------
+ * ✔ Envuelve una conexión JDBC para que sus sentencias se anoten en un SqlRecorder:
+ *   cada execute* cuenta una sentencia (un batch, una) con su tiempo, y cada
+ *   ResultSet.next() que avanza, una fila
+ * ✔ Todo lo demás (unwrap incluido, p. ej. para COPY) llega intacto al driver
+ */
+public final class SqlInstrumentation {
+
+    private SqlInstrumentation() {
+    }
+
+    /**
+     * ✅ Conexión que mide en recorder; sin recorder se devuelve la original
+     */
+    public static Connection wrap(Connection connection, SqlRecorder recorder) {
+        if (recorder == null) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null, recorder);
+                case "prepareStatement" ->
+                        statement(PreparedStatement.class, (Statement) result, (String) args[0], recorder);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0], recorder);
+                default -> result;
+            };
+        });
+    }
+
+    private static Statement statement(Class<? extends Statement> type, Statement statement,
+                                       String preparedSql, SqlRecorder recorder) {
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                long start = System.nanoTime();
+                try {
+                    Object result = invoke(statement, method, args);
+                    return result instanceof ResultSet resultSet ? resultSet(resultSet, recorder) : result;
+                } finally {
+                    recorder.recordExecution(sql, System.nanoTime() - start);
+                }
+            }
+            Object result = invoke(statement, method, args);
+            if ("getResultSet".equals(name) && result instanceof ResultSet resultSet) {
+                return resultSet(resultSet, recorder);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet resultSet, SqlRecorder recorder) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                recorder.recordRow();
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        // Identidad propia: Hibernate guarda sentencias y ResultSets en mapas
+        InvocationHandler identity = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.invoke(proxy, method, args);
+        };
+        return (T) Proxy.newProxyInstance(SqlInstrumentation.class.getClassLoader(), new Class<?>[]{type}, identity);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.app.emsx.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * SqlMetrics
+ * -----------------------------------------------------
+ * ✔ Totales de SQL por endpoint (método + patrón de ruta): peticiones, sentencias,
+ *   máximo por petición, filas, tiempo JDBC y N+1 detectados
+ * ✔ Log por petición: debug normalmente; warn si una forma se repite
+ *   repeated-shape-threshold veces (N+1) o si se superan statement-warn-threshold sentencias
+ */
+@Slf4j
+@Component
+public class SqlMetrics {
+
+    /**
+     * Acumulado de un endpoint desde el arranque
+     */
+    public record EndpointTotals(String endpoint, long requests, long statements, long maxStatements,
+                                 long rows, long jdbcNanos, long nPlusOneDetections) {
+    }
+
+    private static final class Counters {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        final LongAdder rows = new LongAdder();
+        final LongAdder jdbcNanos = new LongAdder();
+        final LongAdder nPlusOne = new LongAdder();
+    }
+
+    private final Map<String, Counters> endpoints = new ConcurrentHashMap<>();
+    private final int repeatedShapeThreshold;
+    private final long statementWarnThreshold;
+
+    public SqlMetrics(@Value("${emsx.sql.repeated-shape-threshold:5}") int repeatedShapeThreshold,
+                      @Value("${emsx.sql.statement-warn-threshold:50}") long statementWarnThreshold) {
+        this.repeatedShapeThreshold = repeatedShapeThreshold;
+        this.statementWarnThreshold = statementWarnThreshold;
+    }
+
+    /**
+     * ✅ Suma lo medido en una petición y lo deja en el log
+     */
+    public void record(String endpoint, SqlStatistics statistics) {
+        Map<String, Long> repeated = statistics.statements() >= repeatedShapeThreshold
+                ? statistics.repeated(repeatedShapeThreshold)
+                : Map.of();
+        Counters counters = endpoints.computeIfAbsent(endpoint, key -> new Counters());
+        counters.requests.increment();
+        counters.statements.add(statistics.statements());
+        counters.maxStatements.accumulate(statistics.statements());
+        counters.rows.add(statistics.rows());
+        counters.jdbcNanos.add(statistics.jdbcNanos());
+
+        if (!repeated.isEmpty()) {
+            counters.nPlusOne.increment();
+            log.warn("Posible N+1 en {}: {} sentencias; repetidas: {}", endpoint, statistics.statements(),
+                    repeated.entrySet().stream()
+                            .map(entry -> entry.getValue() + " × " + entry.getKey())
+                            .collect(Collectors.joining(" | ")));
+        } else if (statistics.statements() >= statementWarnThreshold) {
+            log.warn("SQL {}: {} sentencias, {} filas, {} ms", endpoint, statistics.statements(),
+                    statistics.rows(), String.format("%.1f", statistics.jdbcMillis()));
+        } else if (log.isDebugEnabled()) {
+            log.debug("SQL {}: {} sentencias, {} filas, {} ms", endpoint, statistics.statements(),
+                    statistics.rows(), String.format("%.1f", statistics.jdbcMillis()));
+        }
+    }
+
+    public List<EndpointTotals> totals() {
+        return endpoints.entrySet().stream()
+                .map(entry -> {
+                    Counters counters = entry.getValue();
+                    return new EndpointTotals(entry.getKey(), counters.requests.sum(), counters.statements.sum(),
+                            counters.maxStatements.get(), counters.rows.sum(), counters.jdbcNanos.sum(),
+                            counters.nPlusOne.sum());
+                })
+                .toList();
+    }
+}
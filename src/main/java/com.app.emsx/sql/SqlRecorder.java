@@ -0,0 +1,76 @@
+package com.app.emsx.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SqlRecorder
+ * -----------------------------------------------------
+ * ✔ Acumula las sentencias JDBC de una petición (lo alimentan las conexiones
+ *   instrumentadas por SqlInstrumentation)
+ * ✔ Cuenta por SQL tal cual llega y normaliza a forma recién al leer:
+ *   el costo por sentencia es un contador
+ * ✔ Puede recibir sentencias de dos hilos (petición y cuerpo en streaming)
+ */
+public final class SqlRecorder {
+
+    private static final ThreadLocal<SqlRecorder> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder jdbcNanos = new LongAdder();
+    private final Map<String, LongAdder> bySql = new ConcurrentHashMap<>();
+
+    /**
+     * Recorder del hilo en curso, o null si nada mide
+     */
+    public static SqlRecorder current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * ✅ Ejecuta work midiendo en ese recorder (para trabajo que sigue fuera del hilo de la petición)
+     */
+    public static <T> T call(SqlRecorder recorder, Supplier<T> work) {
+        SqlRecorder previous = bind(recorder);
+        try {
+            return work.get();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * ✅ Fija el recorder del hilo y devuelve el anterior (null lo quita)
+     */
+    static SqlRecorder bind(SqlRecorder recorder) {
+        SqlRecorder previous = CURRENT.get();
+        if (recorder == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(recorder);
+        }
+        return previous;
+    }
+
+    void recordExecution(String sql, long nanos) {
+        statements.increment();
+        jdbcNanos.add(nanos);
+        if (sql != null) {
+            bySql.computeIfAbsent(sql, key -> new LongAdder()).increment();
+        }
+    }
+
+    void recordRow() {
+        rows.increment();
+    }
+
+    public SqlStatistics statistics() {
+        Map<String, Long> shapes = new HashMap<>();
+        bySql.forEach((sql, count) -> shapes.merge(SqlShapes.of(sql), count.sum(), Long::sum));
+        return new SqlStatistics(statements.sum(), rows.sum(), jdbcNanos.sum(), shapes);
+    }
+}
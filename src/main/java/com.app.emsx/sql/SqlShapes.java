@@ -0,0 +1,29 @@
+package com.app.emsx.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * SqlShapes
+ * -----------------------------------------------------
+ * ✔ Forma de una sentencia: el SQL sin valores (literales → ?, listas IN de
+ *   cualquier largo → in (?)); dos consultas con la misma forma solo difieren
+ *   en sus parámetros
+ * ✔ Base del detector de N+1: la misma forma repetida en una petición
+ */
+public final class SqlShapes {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private SqlShapes() {
+    }
+
+    public static String of(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+}
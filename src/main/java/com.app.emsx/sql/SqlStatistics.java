@@ -0,0 +1,29 @@
+package com.app.emsx.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SqlStatistics
+ * -----------------------------------------------------
+ * ✔ Lo medido en una petición: sentencias, filas leídas, tiempo de ejecución
+ *   en JDBC y cuántas veces corrió cada forma (SqlShapes)
+ */
+public record SqlStatistics(long statements, long rows, long jdbcNanos, Map<String, Long> shapes) {
+
+    /**
+     * ✅ Formas ejecutadas threshold veces o más (candidatas a N+1), de la más repetida a la menos
+     */
+    public Map<String, Long> repeated(int threshold) {
+        Map<String, Long> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    public double jdbcMillis() {
+        return jdbcNanos / 1_000_000.0;
+    }
+}
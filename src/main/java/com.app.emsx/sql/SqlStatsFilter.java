@@ -0,0 +1,88 @@
+package com.app.emsx.sql;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * SqlStatsFilter
+ * -----------------------------------------------------
+ * ✔ Primer filtro: todo el SQL de la petición (seguridad incluida) cae en un SqlRecorder
+ * ✔ Al terminar, SqlMetrics lo suma a su endpoint; una respuesta en streaming
+ *   se cuenta cuando el cuerpo termina de escribirse
+ * ✔ Si el hilo ya tiene recorder (un test con SqlBudget) se mide en ese
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private final SqlMetrics sqlMetrics;
+    private final boolean enabled;
+
+    public SqlStatsFilter(SqlMetrics sqlMetrics, @Value("${emsx.sql.enabled:true}") boolean enabled) {
+        this.sqlMetrics = sqlMetrics;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || SqlRecorder.current() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        SqlRecorder recorder = new SqlRecorder();
+        SqlRecorder.bind(recorder);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            SqlRecorder.bind(null);
+            if (async) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        report(request, recorder);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                report(request, recorder);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlRecorder recorder) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "(sin mapeo)");
+        sqlMetrics.record(endpoint, recorder.statistics());
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.emsx.sync;
+
+import com.app.emsx.exceptions.BadRequestException;
+
+/**
+ * ChangeCursor
+ * -----------------------------------------------------
+ * ✔ Posición en el feed de cambios: (change_seq, id) del último cambio entregado
+ * ✔ Se expone como texto opaco "seq.id"; "0" pide el historial completo
+ */
+public record ChangeCursor(long seq, long id) implements Comparable<ChangeCursor> {
+
+    public static final ChangeCursor ORIGIN = new ChangeCursor(-1, 0);
+
+    public static ChangeCursor parse(String value) {
+        if ("0".equals(value)) {
+            return ORIGIN;
+        }
+        int dot = value.indexOf('.');
+        try {
+            if (dot > 0) {
+                return new ChangeCursor(Long.parseLong(value.substring(0, dot)),
+                        Long.parseLong(value.substring(dot + 1)));
+            }
+        } catch (NumberFormatException ignored) {
+            // cae al 400 de abajo
+        }
+        throw new BadRequestException("Cursor inválido en since: " + value);
+    }
+
+    @Override
+    public int compareTo(ChangeCursor other) {
+        int bySeq = Long.compare(seq, other.seq);
+        return bySeq != 0 ? bySeq : Long.compare(id, other.id);
+    }
+
+    @Override
+    public String toString() {
+        return seq + "." + id;
+    }
+}
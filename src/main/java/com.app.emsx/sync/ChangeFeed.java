@@ -0,0 +1,87 @@
+package com.app.emsx.sync;
+
+import com.app.emsx.dtos.sync.ChangeEntry;
+import com.app.emsx.dtos.sync.ChangesResponse;
+import com.app.emsx.exceptions.BadRequestException;
+import com.app.emsx.repositories.ChangeFeedRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ChangeFeed
+ * -----------------------------------------------------
+ * ✔ Arma una página de GET /changes: ids cambiados desde el cursor (una consulta)
+ *   + estado actual de los que siguen vivos (otra consulta IN)
+ * ✔ Sin since solo devuelve el cursor actual: tomarlo antes de la descarga completa
+ *   y sincronizar desde ahí
+ * ✔ Debe llamarse dentro de una transacción REPEATABLE READ para que horizonte,
+ *   ids y datos salgan de la misma instantánea
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeFeed {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeFeedRepository changeFeedRepository;
+
+    public <T> ChangesResponse<T> read(ChangeFeedRepository.Feed feed, String since, int limit,
+                                       Function<Set<Long>, Collection<T>> load, Function<T, Long> idOf) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit debe estar entre 1 y " + MAX_LIMIT);
+        }
+        long horizon = changeFeedRepository.horizon();
+        // Todo lo que cambie a partir de ahora tendrá seq >= horizon
+        ChangeCursor caughtUp = new ChangeCursor(horizon, 0);
+        if (since == null || since.isBlank()) {
+            return ChangesResponse.<T>builder()
+                    .changes(List.of())
+                    .nextCursor(caughtUp.toString())
+                    .build();
+        }
+        ChangeCursor after = ChangeCursor.parse(since.trim());
+
+        List<ChangeFeedRepository.Change> rows = changeFeedRepository.changes(feed, after, horizon, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<ChangeFeedRepository.Change> page = hasMore ? rows.subList(0, limit) : rows;
+
+        Set<Long> liveIds = page.stream()
+                .filter(change -> !change.deleted())
+                .map(ChangeFeedRepository.Change::id)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, T> current = liveIds.isEmpty() ? Map.of() : load.apply(liveIds).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+
+        List<ChangeEntry<T>> changes = page.stream()
+                .map(change -> {
+                    T data = current.get(change.id());
+                    return ChangeEntry.<T>builder()
+                            .id(change.id())
+                            .deleted(data == null)
+                            .data(data)
+                            .build();
+                })
+                .toList();
+
+        ChangeCursor next;
+        if (hasMore) {
+            ChangeFeedRepository.Change last = page.get(page.size() - 1);
+            next = new ChangeCursor(last.seq(), last.id());
+        } else {
+            next = after.compareTo(caughtUp) > 0 ? after : caughtUp;
+        }
+        return ChangesResponse.<T>builder()
+                .changes(changes)
+                .nextCursor(next.toString())
+                .hasMore(hasMore)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.emsx.sync;
+
+import com.app.emsx.common.BatchLookup;
+import com.app.emsx.exceptions.BadRequestException;
+import com.app.emsx.tracking.TrackingCodeGenerator;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ChangeStreamFilter
+ * -----------------------------------------------------
+ * ✔ Qué cambios recibe una suscripción a /api/stream/changes:
+ *   órdenes y envíos por id de orden o de cliente, envíos por tracking code, stock por producto
+ * ✔ Se exige al menos un criterio (no hay suscripción a todo) y como mucho
+ *   BatchLookup.MAX_KEYS claves en total
+ */
+public record ChangeStreamFilter(Set<Long> orderIds, Long customerId, Set<String> trackingCodes, Set<Long> productIds) {
+
+    public static ChangeStreamFilter of(List<Long> orderIds, Long customerId, List<String> trackingCodes,
+                                        List<Long> productIds) {
+        Set<Long> orders = orderIds != null ? Set.copyOf(orderIds) : Set.of();
+        Set<String> codes = trackingCodes != null
+                ? Set.copyOf(trackingCodes.stream().map(String::trim).toList())
+                : Set.of();
+        Set<Long> products = productIds != null ? Set.copyOf(productIds) : Set.of();
+
+        int keys = orders.size() + codes.size() + products.size() + (customerId != null ? 1 : 0);
+        if (keys == 0) {
+            throw new BadRequestException("Se requiere al menos un filtro: orderIds, customerId, trackingCodes o productIds");
+        }
+        if (keys > BatchLookup.MAX_KEYS) {
+            throw new BadRequestException("Máximo " + BatchLookup.MAX_KEYS + " claves por suscripción (recibidas: " + keys + ")");
+        }
+        for (String code : codes) {
+            if (!TrackingCodeGenerator.isWellFormed(code)) {
+                throw new BadRequestException("Código de tracking inválido: " + code);
+            }
+        }
+        return new ChangeStreamFilter(orders, customerId, codes, products);
+    }
+}
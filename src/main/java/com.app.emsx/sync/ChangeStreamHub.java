@@ -0,0 +1,373 @@
+package com.app.emsx.sync;
+
+import com.app.emsx.dtos.stream.OrderChange;
+import com.app.emsx.dtos.stream.ShipmentChange;
+import com.app.emsx.dtos.stream.StockChange;
+import com.app.emsx.events.CarrierEventsAppliedEvent;
+import com.app.emsx.events.OrderChangedEvent;
+import com.app.emsx.events.ProductsImportedEvent;
+import com.app.emsx.events.ShipmentStatusChangedEvent;
+import com.app.emsx.events.StockChangedEvent;
+import com.app.emsx.repositories.StockRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ChangeStreamHub
+ * -----------------------------------------------------
+ * ✔ Reparte por SSE los cambios de órdenes, envíos y stock a los suscriptores
+ *   cuyo filtro los cubre (índices por orden, cliente, tracking code y producto:
+ *   cada cambio toca solo a sus interesados, no recorre todas las conexiones)
+ * ✔ Se alimenta de los eventos de los servicios después del commit
+ * ✔ Una importación masiva escribe stocks por SQL sin eventos por fila: al terminar se
+ *   relee y se envía el stock de los productos con suscriptores (tantos como suscripciones,
+ *   no como filas importadas)
+ * ✔ Una conexión inactiva no ocupa hilo (servlet async): un pool fijo de
+ *   dispatch-threads escribe, y cada suscriptor tiene como mucho un drenado en curso
+ * ✔ Cliente lento: sus pendientes se fusionan por entidad y, si superan
+ *   max-pending, se lo desconecta
+ * ✔ Escritura bloqueada (buffer TCP lleno) más allá de write-deadline-ms: el suscriptor
+ *   se desconecta y el pool suma un hilo mientras el bloqueado espera el write timeout
+ *   del conector (server.tomcat.connection-timeout); así unos pocos clientes lentos
+ *   no frenan la entrega a todos los demás
+ */
+@Slf4j
+@Component
+public class ChangeStreamHub {
+
+    private static final int RESYNC_BATCH = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final StockRepository stockRepository;
+    private final long timeoutMillis;
+    private final int maxPending;
+    private final long writeDeadlineNanos;
+
+    private final Set<ChangeStreamSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<ChangeStreamSubscriber>> byOrder = new ConcurrentHashMap<>();
+    private final Map<Long, Set<ChangeStreamSubscriber>> byCustomer = new ConcurrentHashMap<>();
+    private final Map<String, Set<ChangeStreamSubscriber>> byTrackingCode = new ConcurrentHashMap<>();
+    private final Map<Long, Set<ChangeStreamSubscriber>> byProduct = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor dispatcher;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ChangeStreamHub(ObjectMapper objectMapper,
+                           StockRepository stockRepository,
+                           @Value("${emsx.stream.timeout-minutes:30}") long timeoutMinutes,
+                           @Value("${emsx.stream.max-pending:256}") int maxPending,
+                           @Value("${emsx.stream.dispatch-threads:8}") int dispatchThreads,
+                           @Value("${emsx.stream.heartbeat-seconds:25}") long heartbeatSeconds,
+                           @Value("${emsx.stream.write-deadline-ms:2000}") long writeDeadlineMillis) {
+        this.objectMapper = objectMapper;
+        this.stockRepository = stockRepository;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.maxPending = maxPending;
+        this.writeDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(writeDeadlineMillis);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "change-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Mantiene viva la conexión ante proxies y detecta clientes que ya se fueron
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        long checkMillis = Math.max(100, writeDeadlineMillis / 2);
+        heartbeat.scheduleWithFixedDelay(this::detectStalledWrites, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(this::drop);
+    }
+
+    /**
+     * ✅ Abre una suscripción; termina por timeout, desconexión o cliente lento
+     */
+    public SseEmitter subscribe(ChangeStreamFilter filter) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        // Primer envío en el hilo de la petición (queda en buffer hasta que MVC inicializa el emitter):
+        // las cabeceras se confirman aquí y no desde un hilo del dispatcher, en paralelo con los
+        // filtros que todavía las escriben. Además el cliente sabe que la suscripción está activa
+        try {
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ChangeStreamSubscriber subscriber = new ChangeStreamSubscriber(emitter, filter, maxPending);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> drop(subscriber));
+        emitter.onError(ex -> unregister(subscriber));
+        register(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        publishOrder(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShipmentStatusChanged(ShipmentStatusChangedEvent event) {
+        publishShipment(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        publishStock(event.getProductId(), event.getQuantity(), event.getReservedQuantity());
+    }
+
+    /**
+     * ✅ Tras una importación: stock actual de cada producto con suscriptores
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        List<Long> productIds = new ArrayList<>(byProduct.keySet());
+        for (int from = 0; from < productIds.size(); from += RESYNC_BATCH) {
+            List<Long> batch = productIds.subList(from, Math.min(from + RESYNC_BATCH, productIds.size()));
+            stockRepository.findLevelsByProductIds(batch).forEach(level ->
+                    publishStock(level.getProductId(), level.getQuantity(), level.getReservedQuantity()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCarrierEventsApplied(CarrierEventsAppliedEvent event) {
+        event.getShipments().forEach(this::publishShipment);
+        event.getOrders().forEach(this::publishOrder);
+    }
+
+    private void publishStock(Long productId, Integer quantity, Integer reservedQuantity) {
+        Set<ChangeStreamSubscriber> targets = new HashSet<>();
+        collect(targets, byProduct, productId);
+        publish(targets, "stock:" + productId, "stock", StockChange.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .reservedQuantity(reservedQuantity)
+                .availableQuantity(quantity - reservedQuantity)
+                .build());
+    }
+
+    private void publishOrder(OrderChangedEvent event) {
+        Set<ChangeStreamSubscriber> targets = new HashSet<>();
+        collect(targets, byOrder, event.getOrderId());
+        collect(targets, byCustomer, event.getCustomerId());
+        publish(targets, "order:" + event.getOrderId(), "order", OrderChange.builder()
+                .id(event.getOrderId())
+                .customerId(event.getCustomerId())
+                .status(event.getStatus() != null ? event.getStatus().name() : null)
+                .total(event.getTotal())
+                .deleted(event.isDeleted())
+                .build());
+    }
+
+    private void publishShipment(ShipmentStatusChangedEvent event) {
+        Set<ChangeStreamSubscriber> targets = new HashSet<>();
+        collect(targets, byTrackingCode, event.getTrackingCode());
+        collect(targets, byOrder, event.getOrderId());
+        collect(targets, byCustomer, event.getCustomerId());
+        publish(targets, "shipment:" + event.getShipmentId(), "shipment", ShipmentChange.builder()
+                .id(event.getShipmentId())
+                .trackingCode(event.getTrackingCode())
+                .orderId(event.getOrderId())
+                .status(event.getStatus().name())
+                .occurredAt(event.getOccurredAt())
+                .build());
+    }
+
+    private <K> void collect(Set<ChangeStreamSubscriber> targets, Map<K, Set<ChangeStreamSubscriber>> index, K key) {
+        if (key != null) {
+            Set<ChangeStreamSubscriber> matches = index.get(key);
+            if (matches != null) {
+                targets.addAll(matches);
+            }
+        }
+    }
+
+    private void publish(Set<ChangeStreamSubscriber> targets, String key, String name, Object payload) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        // Una sola serialización por cambio, compartida por todos sus suscriptores
+        ChangeStreamSubscriber.Notification notification;
+        try {
+            notification = new ChangeStreamSubscriber.Notification(name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        for (ChangeStreamSubscriber subscriber : targets) {
+            offer(subscriber, key, notification);
+        }
+    }
+
+    private void sendHeartbeats() {
+        ChangeStreamSubscriber.Notification ping = new ChangeStreamSubscriber.Notification(null, "ping");
+        for (ChangeStreamSubscriber subscriber : subscribers) {
+            offer(subscriber, "heartbeat", ping);
+        }
+    }
+
+    private void offer(ChangeStreamSubscriber subscriber, String key, ChangeStreamSubscriber.Notification notification) {
+        switch (subscriber.offer(key, notification)) {
+            case DRAIN -> {
+                try {
+                    dispatcher.execute(() -> drain(subscriber));
+                } catch (RejectedExecutionException ex) {
+                    drop(subscriber);
+                }
+            }
+            case OVERFLOW -> {
+                log.debug("Suscriptor SSE desconectado: más de {} cambios pendientes", maxPending);
+                drop(subscriber);
+            }
+            case QUEUED, CLOSED -> {
+                // nada que hacer
+            }
+        }
+    }
+
+    private void drain(ChangeStreamSubscriber subscriber) {
+        List<ChangeStreamSubscriber.Notification> batch;
+        while (!(batch = subscriber.takePending()).isEmpty()) {
+            for (ChangeStreamSubscriber.Notification notification : batch) {
+                if (!write(subscriber, notification)) {
+                    drop(subscriber);
+                    break;
+                }
+            }
+        }
+        // Cerrada durante el drenado: drop() dejó el complete() a este hilo
+        if (subscriber.isClosed()) {
+            subscriber.emitter().complete();
+        }
+    }
+
+    private boolean write(ChangeStreamSubscriber subscriber, ChangeStreamSubscriber.Notification notification) {
+        subscriber.beginWrite();
+        try {
+            subscriber.emitter().send(notification.toEvent());
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            // Conexión cerrada por el cliente o emitter ya completado
+            return false;
+        } finally {
+            if (subscriber.endWrite()) {
+                // Declarada bloqueada: este hilo vuelve y el extra que lo cubría sobra
+                resizeDispatcher(-1);
+            }
+        }
+    }
+
+    private void detectStalledWrites() {
+        long now = System.nanoTime();
+        for (ChangeStreamSubscriber subscriber : subscribers) {
+            if (subscriber.stall(now, writeDeadlineNanos)) {
+                log.debug("Suscriptor SSE desconectado: escritura bloqueada más de {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(writeDeadlineNanos));
+                unregister(subscriber);
+                resizeDispatcher(1);
+            }
+        }
+    }
+
+    private void resizeDispatcher(int delta) {
+        synchronized (dispatcher) {
+            int size = dispatcher.getMaximumPoolSize() + delta;
+            if (delta > 0) {
+                dispatcher.setMaximumPoolSize(size);
+                dispatcher.setCorePoolSize(size);
+            } else {
+                dispatcher.setCorePoolSize(size);
+                dispatcher.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private void drop(ChangeStreamSubscriber subscriber) {
+        if (subscriber.close()) {
+            unregister(subscriber);
+            // complete() comparte el lock de send(): con un drenado en curso (quizá bloqueado
+            // en una escritura) esperaría aquí, en el hilo que publica; lo completa el drenado
+            if (!subscriber.isDraining()) {
+                subscriber.emitter().complete();
+            }
+        }
+    }
+
+    private void register(ChangeStreamSubscriber subscriber) {
+        ChangeStreamFilter filter = subscriber.filter();
+        subscribers.add(subscriber);
+        filter.orderIds().forEach(id -> add(byOrder, id, subscriber));
+        if (filter.customerId() != null) {
+            add(byCustomer, filter.customerId(), subscriber);
+        }
+        filter.trackingCodes().forEach(code -> add(byTrackingCode, code, subscriber));
+        filter.productIds().forEach(id -> add(byProduct, id, subscriber));
+    }
+
+    private void unregister(ChangeStreamSubscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriber.close();
+        ChangeStreamFilter filter = subscriber.filter();
+        remove(byOrder, filter.orderIds(), subscriber);
+        if (filter.customerId() != null) {
+            remove(byCustomer, List.of(filter.customerId()), subscriber);
+        }
+        remove(byTrackingCode, filter.trackingCodes(), subscriber);
+        remove(byProduct, filter.productIds(), subscriber);
+    }
+
+    private static <K> void add(Map<K, Set<ChangeStreamSubscriber>> index, K key, ChangeStreamSubscriber subscriber) {
+        // compute es atómico por clave frente al remove que descarta conjuntos vacíos
+        index.compute(key, (k, set) -> {
+            Set<ChangeStreamSubscriber> subscribersForKey = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribersForKey.add(subscriber);
+            return subscribersForKey;
+        });
+    }
+
+    private static <K> void remove(Map<K, Set<ChangeStreamSubscriber>> index, Collection<K> keys,
+                                   ChangeStreamSubscriber subscriber) {
+        for (K key : keys) {
+            index.computeIfPresent(key, (k, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
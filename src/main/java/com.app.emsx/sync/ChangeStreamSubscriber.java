@@ -0,0 +1,143 @@
+package com.app.emsx.sync;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * ChangeStreamSubscriber
+ * -----------------------------------------------------
+ * ✔ Una conexión SSE abierta y sus notificaciones pendientes de escribir
+ * ✔ Las pendientes se guardan por clave (recurso + id): si una entidad cambia de nuevo
+ *   antes de llegar al cliente, solo viaja su último estado
+ * ✔ Si aun así se acumulan más de maxPending claves, el cliente es demasiado lento:
+ *   se corta y deberá reconectar y resincronizar con /changes
+ * ✔ Marca la escritura en curso para que el hub detecte las que quedan bloqueadas
+ */
+final class ChangeStreamSubscriber {
+
+    enum Offer {
+        /** Ya hay un drenado en curso o programado que la va a entregar */
+        QUEUED,
+        /** El llamador debe programar el drenado */
+        DRAIN,
+        /** Demasiadas pendientes: el llamador debe cerrar la suscripción */
+        OVERFLOW,
+        /** La suscripción ya estaba cerrada */
+        CLOSED
+    }
+
+    /**
+     * name null = comentario SSE (heartbeat); json ya serializado una vez para todos los suscriptores
+     */
+    record Notification(String name, String json) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return name == null
+                    ? SseEmitter.event().comment(json)
+                    : SseEmitter.event().name(name).data(json);
+        }
+    }
+
+    private final SseEmitter emitter;
+    private final ChangeStreamFilter filter;
+    private final int maxPending;
+
+    private final LinkedHashMap<String, Notification> pending = new LinkedHashMap<>();
+    private boolean draining;
+    private boolean closed;
+    private boolean stalled;
+    /** System.nanoTime() al empezar la escritura en curso; 0 sin escritura */
+    private long writingSince;
+
+    ChangeStreamSubscriber(SseEmitter emitter, ChangeStreamFilter filter, int maxPending) {
+        this.emitter = emitter;
+        this.filter = filter;
+        this.maxPending = maxPending;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    ChangeStreamFilter filter() {
+        return filter;
+    }
+
+    synchronized Offer offer(String key, Notification notification) {
+        if (closed) {
+            return Offer.CLOSED;
+        }
+        // Reemplaza el estado anterior de la misma entidad y lo pasa al final de la cola
+        pending.remove(key);
+        pending.put(key, notification);
+        if (pending.size() > maxPending) {
+            return Offer.OVERFLOW;
+        }
+        if (draining) {
+            return Offer.QUEUED;
+        }
+        draining = true;
+        return Offer.DRAIN;
+    }
+
+    /**
+     * ✅ Retira las pendientes; vacío libera el drenado (la próxima oferta lo vuelve a programar)
+     */
+    synchronized List<Notification> takePending() {
+        if (closed || pending.isEmpty()) {
+            draining = false;
+            return List.of();
+        }
+        List<Notification> batch = new ArrayList<>(pending.values());
+        pending.clear();
+        return batch;
+    }
+
+    synchronized boolean isDraining() {
+        return draining;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    synchronized void beginWrite() {
+        writingSince = Math.max(1, System.nanoTime());
+    }
+
+    /**
+     * ✅ Fin de la escritura; true si mientras tanto se la declaró bloqueada (stall)
+     */
+    synchronized boolean endWrite() {
+        writingSince = 0;
+        return stalled;
+    }
+
+    /**
+     * ✅ Cierra la suscripción si su escritura en curso supera el plazo; true solo la primera vez
+     */
+    synchronized boolean stall(long now, long deadlineNanos) {
+        if (stalled || writingSince == 0 || now - writingSince <= deadlineNanos) {
+            return false;
+        }
+        stalled = true;
+        closed = true;
+        pending.clear();
+        return true;
+    }
+
+    /**
+     * ✅ true solo para el primer cierre
+     */
+    synchronized boolean close() {
+        if (closed) {
+            return false;
+        }
+        closed = true;
+        pending.clear();
+        return true;
+    }
+}
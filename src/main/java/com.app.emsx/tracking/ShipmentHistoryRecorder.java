@@ -0,0 +1,31 @@
+package com.app.emsx.tracking;
+
+import com.app.emsx.events.ShipmentStatusChangedEvent;
+import com.app.emsx.repositories.ShipmentHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * ShipmentHistoryRecorder
+ * -----------------------------------------------------
+ * ✔ Agrega al historial los cambios de estado hechos desde la API
+ * ✔ Escribe antes del commit, dentro de la misma transacción: el cambio
+ *   y su entrada de historial se confirman (o se revierten) juntos
+ */
+@Component
+@RequiredArgsConstructor
+public class ShipmentHistoryRecorder {
+
+    private final ShipmentHistoryRepository shipmentHistoryRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onStatusChanged(ShipmentStatusChangedEvent event) {
+        shipmentHistoryRepository.append(List.of(new ShipmentHistoryRepository.Entry(
+                event.getShipmentId(), event.getStatus().name(), event.getOccurredAt(),
+                ShipmentHistoryRepository.Source.SYSTEM)));
+    }
+}
@@ -0,0 +1,158 @@
+package com.app.emsx.tracking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TrackingCodeGenerator
+ * -----------------------------------------------------
+ * ✔ Códigos TRK-XXXXXXXXXXXXXC sin UUID ni reintentos contra la base:
+ *   63 bits = 41 de milisegundos desde EPOCH | 10 de nodo | 12 de secuencia
+ * ✔ Únicos mientras cada instancia tenga su propio emsx.tracking.node-id (0..1023):
+ *   dentro del nodo la secuencia nunca se repite, ni con ráfagas (>4096/ms toma
+ *   prestado el milisegundo siguiente) ni si el reloj retrocede
+ * ✔ Sin node-id configurado se usa 0 con un WARN al arrancar: vale para una sola
+ *   instancia; dos instancias sin configurar generarían códigos repetidos
+ * ✔ Base32 Crockford de ancho fijo: el orden del texto es el orden temporal,
+ *   así los INSERT caen al final del índice único de shipments.tracking_code
+ * ✔ Último carácter = dígito de control (Luhn mod 32): isWellFormed descarta
+ *   códigos mal tipeados sin ir a la base
+ */
+@Slf4j
+@Component
+public class TrackingCodeGenerator {
+
+    public static final String PREFIX = "TRK-";
+
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int BODY_LENGTH = 13;                  // ceil(63 / 5)
+    private static final int CODE_LENGTH = PREFIX.length() + BODY_LENGTH + 1;
+    private static final int[] VALUES = new int[128];
+
+    // Formato anterior (TRK- + 8 hex del UUID): sigue siendo válido para las búsquedas
+    private static final int LEGACY_LENGTH = PREFIX.length() + 8;
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            VALUES[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    private final long node;
+
+    // (milisegundo << SEQUENCE_BITS) | secuencia del último código emitido
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * ✅ node = -1: sin configurar (NODE_ID ausente), solo seguro con una instancia
+     */
+    public TrackingCodeGenerator(@Value("${emsx.tracking.node-id:-1}") int node) {
+        if (node == -1) {
+            log.warn("emsx.tracking.node-id (NODE_ID) sin configurar: se usa el nodo 0. Con más de una instancia"
+                    + " cada una necesita su propio NODE_ID (0..{}) o los códigos de tracking se repetirán",
+                    (1 << NODE_BITS) - 1);
+            node = 0;
+        }
+        if (node < 0 || node >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("emsx.tracking.node-id debe estar entre 0 y " + ((1 << NODE_BITS) - 1));
+        }
+        this.node = node;
+    }
+
+    public String next() {
+        long now = (System.currentTimeMillis() - EPOCH.toEpochMilli()) << SEQUENCE_BITS;
+        long state;
+        long next;
+        do {
+            state = last.get();
+            // +1 desborda la secuencia hacia el milisegundo siguiente; max() ignora retrocesos del reloj
+            next = Math.max(state + 1, now);
+        } while (!last.compareAndSet(state, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return encode((millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence);
+    }
+
+    /**
+     * ✅ Forma y dígito de control válidos (o formato anterior); no consulta la base
+     */
+    public static boolean isWellFormed(String code) {
+        if (code == null || !code.startsWith(PREFIX)) {
+            return false;
+        }
+        if (code.length() == LEGACY_LENGTH) {
+            for (int i = PREFIX.length(); i < LEGACY_LENGTH; i++) {
+                char c = code.charAt(i);
+                if ((c < '0' || c > '9') && (c < 'A' || c > 'F')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (code.length() != CODE_LENGTH) {
+            return false;
+        }
+        int[] digits = new int[BODY_LENGTH];
+        for (int i = 0; i < BODY_LENGTH; i++) {
+            char c = code.charAt(PREFIX.length() + i);
+            int value = c < 128 ? VALUES[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            digits[i] = value;
+        }
+        char check = code.charAt(CODE_LENGTH - 1);
+        return check < 128 && VALUES[check] == checkDigit(digits);
+    }
+
+    /**
+     * Inverso de encode (sin validar el dígito de control: ver isWellFormed)
+     */
+    static long decode(String code) {
+        long id = 0;
+        for (int i = 0; i < BODY_LENGTH; i++) {
+            id = (id << 5) | VALUES[code.charAt(PREFIX.length() + i)];
+        }
+        return id;
+    }
+
+    static String encode(long id) {
+        int[] digits = new int[BODY_LENGTH];
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            digits[i] = (int) (id & 31);
+            id >>>= 5;
+        }
+        char[] code = new char[CODE_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), code, 0);
+        for (int i = 0; i < BODY_LENGTH; i++) {
+            code[PREFIX.length() + i] = ALPHABET.charAt(digits[i]);
+        }
+        code[CODE_LENGTH - 1] = ALPHABET.charAt(checkDigit(digits));
+        return new String(code);
+    }
+
+    /**
+     * Luhn mod N (N = 32): detecta cualquier carácter cambiado y casi todas las transposiciones
+     */
+    private static int checkDigit(int[] digits) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int addend = factor * digits[i];
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / 32 + addend % 32;
+        }
+        return (32 - sum % 32) % 32;
+    }
+}
@@ -0,0 +1,123 @@
+package com.app.emsx.tracking;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TrackingHistoryPartitions
+ * -----------------------------------------------------
+ * ✔ Mantiene las particiones mensuales (UTC) de shipment_tracking_events:
+ *   el mes en curso y los siguientes existen antes de que llegue la primera fila
+ * ✔ Retención por partición: las de meses vencidos se eliminan con DROP TABLE
+ *   (sin DELETE masivo, sin bloat ni VACUUM posterior)
+ * ✔ Corre antes de que el servidor acepte peticiones y luego una vez al día;
+ *   un advisory lock serializa el mantenimiento entre instancias
+ */
+@Slf4j
+@Component
+public class TrackingHistoryPartitions implements SmartInitializingSingleton {
+
+    private static final String TABLE = "shipment_tracking_events";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String LIST_PARTITIONS = "SELECT c.relname FROM pg_inherits i"
+            + " JOIN pg_class c ON c.oid = i.inhrelid"
+            + " JOIN pg_class p ON p.oid = i.inhparent"
+            + " WHERE p.relname = '" + TABLE + "'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tracking-history-partitions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TrackingHistoryPartitions(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${emsx.tracking.history-months-ahead:2}") int monthsAhead,
+                                     @Value("${emsx.tracking.history-retention-months:12}") int retentionMonths) {
+        if (monthsAhead < 1 || retentionMonths < 1) {
+            throw new IllegalArgumentException("emsx.tracking.history-months-ahead y history-retention-months deben ser >= 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Síncrono: sin la partición del mes en curso, cualquier cambio de estado fallaría
+        maintain();
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                maintain();
+            } catch (RuntimeException ex) {
+                log.error("No se pudieron mantener las particiones de {}", TABLE, ex);
+            }
+        }, 1, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * ✅ Crea las particiones que falten y elimina las vencidas
+     */
+    public void maintain() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext(?))", TABLE);
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartition(current.plusMonths(i));
+            }
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+                YearMonth month = monthOf(partition);
+                if (month != null && month.isBefore(oldestKept)) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                    log.info("Partición de historial eliminada por retención: {}", partition);
+                }
+            }
+        });
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + "_" + month.format(SUFFIX)
+                + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + month.atDay(1) + " 00:00:00+00')"
+                + " TO ('" + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+    }
+
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(TABLE + "_")) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(TABLE.length() + 1), SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
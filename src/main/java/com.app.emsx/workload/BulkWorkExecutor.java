@@ -0,0 +1,54 @@
+package com.app.emsx.workload;
+
+import com.app.emsx.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * BulkWorkExecutor
+ * -----------------------------------------------------
+ * ✔ Hilos del trabajo BULK: aquí se escriben las respuestas en streaming
+ *   (executor async de Spring MVC), tantos hilos como conexiones tiene el pool BULK
+ * ✔ Cola acotada (emsx.workload.bulk-queue); admit() rechaza con 503 antes de
+ *   confirmar la respuesta, porque una vez enviadas las cabeceras ya no se puede
+ * ✔ OLTP e INTERACTIVE siguen en los hilos de Tomcat, repartidos por prioridad
+ *   en ConcurrencyLimitFilter
+ */
+@Component
+public class BulkWorkExecutor {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public BulkWorkExecutor(WorkloadProperties properties) {
+        int threads = Math.max(1, properties.getBulk().getMaximumPoolSize());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(properties.getBulkQueue());
+        executor.setThreadNamePrefix("bulk-work-");
+        executor.setDaemon(true);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public AsyncTaskExecutor taskExecutor() {
+        return executor;
+    }
+
+    /**
+     * ✅ 503 si la cola de BULK está llena (se llama desde el hilo del controlador)
+     */
+    public void admit() {
+        if (executor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0) {
+            throw new ServiceUnavailableException("Too many bulk requests in progress, retry later",
+                    RETRY_AFTER_SECONDS);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.emsx.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Workload
+ * -----------------------------------------------------
+ * ✔ Declara en qué pool corre un método de servicio (o todos los de una clase)
+ * ✔ Decide la conexión de la transacción: vale para la primera sentencia;
+ *   dentro de una transacción que ya tiene conexión no cambia nada
+ * ✔ Sin anotación: readOnly → INTERACTIVE, el resto → OLTP
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Workload {
+
+    WorkloadType value();
+}
@@ -0,0 +1,60 @@
+package com.app.emsx.workload;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * WorkloadContext
+ * -----------------------------------------------------
+ * ✔ Workload declarado para el hilo en curso: lo fija WorkloadInterceptor (@Workload)
+ *   o call(), para código que abre la transacción con un TransactionTemplate
+ * ✔ current() resuelve el pool de la próxima conexión: el declarado o,
+ *   si no hay, el que corresponde a la transacción en curso
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadType> DECLARED = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadType current() {
+        WorkloadType declared = DECLARED.get();
+        if (declared != null) {
+            return declared;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? WorkloadType.INTERACTIVE
+                : WorkloadType.OLTP;
+    }
+
+    /**
+     * ✅ Ejecuta work con ese workload declarado (equivalente programático de @Workload)
+     */
+    public static <T> T call(WorkloadType type, Supplier<T> work) {
+        WorkloadType previous = declare(type);
+        try {
+            return work.get();
+        } finally {
+            reset(previous);
+        }
+    }
+
+    /**
+     * ✅ Fija el workload del hilo y devuelve el anterior, para restaurarlo con reset
+     */
+    static WorkloadType declare(WorkloadType type) {
+        WorkloadType previous = DECLARED.get();
+        DECLARED.set(type);
+        return previous;
+    }
+
+    static void reset(WorkloadType previous) {
+        if (previous == null) {
+            DECLARED.remove();
+        } else {
+            DECLARED.set(previous);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.app.emsx.workload;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * WorkloadInterceptor
+ * -----------------------------------------------------
+ * ✔ Aplica @Workload: fija el workload del hilo durante la llamada y restaura
+ *   el anterior al salir (las llamadas anidadas no se pisan)
+ * ✔ Corre por fuera de @Transactional (ver WorkloadDataSourceConfig)
+ */
+public class WorkloadInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Workload workload = find(invocation);
+        if (workload == null) {
+            return invocation.proceed();
+        }
+        WorkloadType previous = WorkloadContext.declare(workload.value());
+        try {
+            return invocation.proceed();
+        } finally {
+            WorkloadContext.reset(previous);
+        }
+    }
+
+    private static Workload find(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(method, Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+        }
+        return workload;
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.emsx.workload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * WorkloadProperties
+ * -----------------------------------------------------
+ * ✔ Un pool por workload (emsx.workload.<oltp|interactive|bulk>.*): tamaño,
+ *   espera máxima por conexión y statement_timeout de sus sesiones (0 = sin límite)
+ * ✔ La suma de los tres es lo que se abre contra Postgres; que BULK se agote
+ *   no deja sin conexiones a OLTP
+ * ✔ bulk-queue: respuestas en streaming que pueden esperar hilo de BULK antes del 503
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "emsx.workload")
+public class WorkloadProperties {
+
+    private Pool oltp = new Pool(10, 2, 10_000, 30_000);
+
+    private Pool interactive = new Pool(6, 2, 5_000, 5_000);
+
+    private Pool bulk = new Pool(4, 0, 30_000, 300_000);
+
+    private int bulkQueue = 50;
+
+    public Pool pool(WorkloadType type) {
+        return switch (type) {
+            case OLTP -> oltp;
+            case INTERACTIVE -> interactive;
+            case BULK -> bulk;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private int maximumPoolSize;
+        private int minimumIdle;
+        private long connectionTimeoutMs;
+        private long statementTimeoutMs;
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.emsx.workload;
+
+import com.app.emsx.replica.ReadReplicas;
+import com.app.emsx.sql.SqlInstrumentation;
+import com.app.emsx.sql.SqlRecorder;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * WorkloadRoutingDataSource
+ * -----------------------------------------------------
+ * ✔ Entrega cada conexión del pool del workload en curso (WorkloadContext)
+ * ✔ Va detrás de un LazyConnectionDataSourceProxy: la conexión real se pide
+ *   en la primera sentencia, cuando readOnly y @Workload ya están fijados
+ *   (JpaTransactionManager la pediría antes, al abrir la transacción)
+ * ✔ Con réplicas configuradas, las transacciones readOnly se leen de ellas
+ *   (ReadReplicas); el primario queda para escrituras y como respaldo
+ * ✔ Dentro de una petición medida, la conexión sale instrumentada (SqlInstrumentation)
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<WorkloadType, HikariDataSource> pools;
+    private final ReadReplicas readReplicas;
+
+    public WorkloadRoutingDataSource(Map<WorkloadType, HikariDataSource> pools, ReadReplicas readReplicas) {
+        this.pools = Collections.unmodifiableMap(new EnumMap<>(pools));
+        this.readReplicas = readReplicas;
+        setTargetDataSources(Map.copyOf(pools));
+        setDefaultTargetDataSource(pools.get(WorkloadType.OLTP));
+        setLenientFallback(false);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readReplicas.isEnabled() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Connection replica = readReplicas.getConnection(WorkloadContext.current());
+            if (replica != null) {
+                return SqlInstrumentation.wrap(replica, SqlRecorder.current());
+            }
+        }
+        Connection connection = super.getConnection();
+        readReplicas.onPrimaryConnection(connection);
+        return SqlInstrumentation.wrap(connection, SqlRecorder.current());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    public Map<WorkloadType, HikariDataSource> pools() {
+        return pools;
+    }
+}
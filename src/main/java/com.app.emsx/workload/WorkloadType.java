@@ -0,0 +1,16 @@
+package com.app.emsx.workload;
+
+/**
+ * WorkloadType
+ * -----------------------------------------------------
+ * ✔ Clase de trabajo contra la base de datos; cada una tiene su propio pool
+ *   de conexiones (emsx.workload.<tipo>.*) y su statement_timeout
+ * ✔ OLTP: escrituras y todo lo que no declare otra cosa;
+ *   INTERACTIVE: lecturas cortas (transacciones readOnly);
+ *   BULK: listados completos, exportaciones e importaciones masivas
+ */
+public enum WorkloadType {
+    OLTP,
+    INTERACTIVE,
+    BULK
+}
@@ -0,0 +1,61 @@
+-- =====================================================================
+-- Seguimiento de cambios para GET /api/{products,orders,shipments}/changes
+-- ---------------------------------------------------------------------
+-- * change_seq = txid_current() de la última transacción que escribió la fila;
+--   lo asigna un trigger, así cubre JPA, COPY/upserts masivos y UPDATE nativos
+-- * Los borrados físicos (órdenes, envíos) dejan una lápida en change_tombstones
+-- * Se ejecuta después del ddl-auto de Hibernate (defer-datasource-initialization)
+--   y es idempotente. Separador de sentencias: @@ (los cuerpos $$ llevan ';')
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS change_tombstones (
+    resource   varchar(32) NOT NULL,
+    entity_id  bigint      NOT NULL,
+    change_seq bigint      NOT NULL,
+    PRIMARY KEY (resource, entity_id)
+)@@
+
+CREATE INDEX IF NOT EXISTS idx_change_tombstones_seq ON change_tombstones (resource, change_seq)@@
+CREATE INDEX IF NOT EXISTS idx_products_change_seq ON products (change_seq)@@
+CREATE INDEX IF NOT EXISTS idx_stocks_change_seq ON stocks (change_seq)@@
+CREATE INDEX IF NOT EXISTS idx_orders_change_seq ON orders (change_seq)@@
+CREATE INDEX IF NOT EXISTS idx_shipments_change_seq ON shipments (change_seq)@@
+
+CREATE OR REPLACE FUNCTION emsx_touch_change_seq() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.change_seq := txid_current();
+    RETURN NEW;
+END
+$$@@
+
+-- Borrar un envío cambia también la representación de su orden (pierde el shipment)
+CREATE OR REPLACE FUNCTION emsx_record_tombstone() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO change_tombstones (resource, entity_id, change_seq)
+    VALUES (TG_TABLE_NAME, OLD.id, txid_current())
+    ON CONFLICT (resource, entity_id) DO UPDATE SET change_seq = EXCLUDED.change_seq;
+    IF TG_TABLE_NAME = 'shipments' THEN
+        UPDATE orders SET change_seq = txid_current() WHERE id = OLD.order_id;
+    END IF;
+    RETURN OLD;
+END
+$$@@
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['products', 'stocks', 'orders', 'shipments'] LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'trg_' || t || '_change_seq') THEN
+            EXECUTE format('CREATE TRIGGER %I BEFORE INSERT OR UPDATE ON %I '
+                || 'FOR EACH ROW EXECUTE PROCEDURE emsx_touch_change_seq()', 'trg_' || t || '_change_seq', t);
+        END IF;
+    END LOOP;
+    FOREACH t IN ARRAY ARRAY['orders', 'shipments'] LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'trg_' || t || '_tombstone') THEN
+            EXECUTE format('CREATE TRIGGER %I AFTER DELETE ON %I '
+                || 'FOR EACH ROW EXECUTE PROCEDURE emsx_record_tombstone()', 'trg_' || t || '_tombstone', t);
+        END IF;
+    END LOOP;
+END
+$$@@
@@ -0,0 +1,16 @@
+-- =====================================================================
+-- Tokens revocados (refresh rotados, logout)
+-- ---------------------------------------------------------------------
+-- * Una fila por jti, hasta que el token habría expirado de todos modos;
+--   TokenRevocations purga las vencidas y reconstruye su Bloom filter
+-- * revoked_at: marca para que cada instancia sincronice solo lo nuevo
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        varchar(64) PRIMARY KEY,
+    expires_at timestamptz NOT NULL,
+    revoked_at timestamptz NOT NULL DEFAULT now()
+)@@
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at)@@
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at)@@
@@ -0,0 +1,21 @@
+-- =====================================================================
+-- Historial de seguimiento de envíos (GET /api/shipments/{id}/history)
+-- ---------------------------------------------------------------------
+-- * Solo inserciones: una fila por cambio de estado, nunca se actualiza
+-- * Particionada por mes de recorded_at; TrackingHistoryPartitions crea las
+--   particiones por adelantado y aplica la retención con DROP TABLE
+-- * Sin FK a shipments: el historial sobrevive al envío hasta que su
+--   partición expira
+-- * Idempotente. Separador de sentencias: @@
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS shipment_tracking_events (
+    shipment_id bigint      NOT NULL,
+    status      varchar(32) NOT NULL,
+    occurred_at timestamptz NOT NULL,
+    recorded_at timestamptz NOT NULL DEFAULT now(),
+    source      varchar(16) NOT NULL
+) PARTITION BY RANGE (recorded_at)@@
+
+CREATE INDEX IF NOT EXISTS idx_shipment_tracking_events_shipment
+    ON shipment_tracking_events (shipment_id, occurred_at)@@
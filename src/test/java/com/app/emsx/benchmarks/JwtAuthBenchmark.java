@@ -0,0 +1,107 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthBenchmark
+ * -----------------------------------------------------
+ * ✔ CPU de autenticación por petición en JwtAuthenticationFilter (sin la carga del usuario):
+ *   legacy      → tres parseos con un parser nuevo cada vez (username, username, expiración)
+ *   singleParse → un parseo con el parser reutilizado (caché desactivada)
+ *   cached      → token ya verificado: hash SHA-256 + lookup en la caché
+ * ✔ No es un test de JUnit (surefire no la ejecuta). Para correrla:
+ *   mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.app.emsx.benchmarks.JwtAuthBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private Key key;
+    private JwtService uncached;
+    private JwtService cached;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        String encoded = Base64.getEncoder().encodeToString(secret);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(encoded));
+
+        uncached = new JwtService(0, 15, 14);
+        uncached.initKey(encoded);
+        cached = new JwtService(10_000, 15, 14);
+        cached.initKey(encoded);
+
+        user = User.withUsername("admin@emsx.com").password("unused").roles("ADMIN").build();
+        token = cached.generateToken(user);
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String username = parse(token).getSubject();
+        return username.equals(user.getUsername())
+                && parse(token).getSubject().equals(user.getUsername())
+                && parse(token).getExpiration().after(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        Claims claims = uncached.verify(token);
+        return uncached.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean cached() {
+        Claims claims = cached.verify(token);
+        return cached.isTokenValid(claims, user);
+    }
+
+    // Lo que hacía JwtService.extractAllClaims antes: un parser nuevo por cada claim leído
+    private Claims parse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.ratelimit.RateLimitProperties;
+import com.app.emsx.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiterBenchmark
+ * -----------------------------------------------------
+ * ✔ Costo de RateLimiter.tryAcquire (resolver grupo + bucket + CAS) con 8 hilos:
+ *   sharedClient → todos sobre el mismo bucket (peor caso de contención)
+ *   manyClients  → 10.000 clientes repartidos entre los grupos
+ * ✔ No es un test de JUnit (surefire no la ejecuta). Para correrla:
+ *   mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.app.emsx.benchmarks.RateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private static final String[] PATHS = {"/api/orders/42", "/api/products", "/api/shipments/track/EMS1"};
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup
+    public void setup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("auth", group("/api/auth/**", 10, 1));
+        properties.getGroups().put("orders", group("/api/orders/**", 100, 50));
+        properties.getGroups().put("stream", group("/api/stream/**", 5, 0.2));
+        rateLimiter = new RateLimiter(properties);
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "client" + i + "@emsx.com";
+        }
+    }
+
+    @Benchmark
+    public boolean sharedClient() {
+        return rateLimiter.tryAcquire("integration@emsx.com", true, "GET", "/api/orders/42").allowed();
+    }
+
+    @Benchmark
+    public boolean manyClients() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return rateLimiter.tryAcquire(clients[random.nextInt(CLIENTS)], true, "GET", PATHS[random.nextInt(PATHS.length)]).allowed();
+    }
+
+    private static RateLimitProperties.Group group(String path, long capacity, double refillPerSecond) {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPaths(List.of(path));
+        group.setCapacity(capacity);
+        group.setRefillPerSecond(refillPerSecond);
+        return group;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
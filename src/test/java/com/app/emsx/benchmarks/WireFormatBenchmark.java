@@ -0,0 +1,178 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.order.OrderResponse;
+import com.app.emsx.dtos.product.ProductResponse;
+import com.app.emsx.fields.FieldSet;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * WireFormatBenchmark
+ * -----------------------------------------------------
+ * ✔ Compara JSON, CBOR y Smile al codificar / decodificar listas de
+ *   OrderResponse y ProductResponse dentro del sobre ApiResponse
+ * ✔ Los mappers se configuran como en la aplicación (Jackson2ObjectMapperBuilder
+ *   con fechas ISO); main() imprime además el tamaño de cada payload
+ * ✔ No es un test de JUnit (surefire no la ejecuta). Para correrla:
+ *   mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.app.emsx.benchmarks.WireFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int ORDERS = 500;
+    private static final int PRODUCTS = 2_000;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"orders", "products"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private Object response;
+    private JavaType responseType;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = mapper(format);
+        response = "orders".equals(payload)
+                ? ApiResponse.ok("Orders retrieved successfully", orders())
+                : ApiResponse.ok("Products retrieved successfully", products());
+        Class<?> element = "orders".equals(payload) ? OrderResponse.class : ProductResponse.class;
+        responseType = mapper.getTypeFactory().constructParametricType(ApiResponse.class,
+                mapper.getTypeFactory().constructCollectionType(List.class, element));
+        encoded = mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return mapper.readValue(encoded, responseType);
+    }
+
+    static ObjectMapper mapper(String format) {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        return new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(FieldSet.defaultFilters())
+                .factory(factory)
+                .build();
+    }
+
+    static List<OrderResponse> orders() {
+        LocalDateTime now = LocalDateTime.now();
+        return IntStream.range(0, ORDERS)
+                .mapToObj(i -> {
+                    List<OrderResponse.OrderItemInfo> items = new ArrayList<>();
+                    for (int j = 0; j < 3; j++) {
+                        long productId = (i * 7L + j) % PRODUCTS;
+                        items.add(OrderResponse.OrderItemInfo.builder()
+                                .id(i * 3L + j)
+                                .quantity(j + 1)
+                                .subtotal(BigDecimal.valueOf(1999 * (j + 1), 2))
+                                .product(OrderResponse.OrderItemInfo.ProductInfo.builder()
+                                        .id(productId)
+                                        .name("Product " + productId)
+                                        .sku("SKU-" + productId)
+                                        .price(BigDecimal.valueOf(1999, 2))
+                                        .build())
+                                .build());
+                    }
+                    return OrderResponse.builder()
+                            .id((long) i)
+                            .date(now.minusMinutes(i))
+                            .status("CONFIRMED")
+                            .total(BigDecimal.valueOf(11994, 2))
+                            .customer(OrderResponse.CustomerInfo.builder()
+                                    .id(i % 100L)
+                                    .name("Customer " + i % 100)
+                                    .email("customer" + i % 100 + "@example.com")
+                                    .build())
+                            .items(items)
+                            .shipment(OrderResponse.ShipmentInfo.builder()
+                                    .id((long) i)
+                                    .trackingCode("TRK-" + (100000 + i))
+                                    .status("IN_TRANSIT")
+                                    .carrier("DHL")
+                                    .build())
+                            .build();
+                })
+                .toList();
+    }
+
+    static List<ProductResponse> products() {
+        return IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> ProductResponse.builder()
+                        .id((long) i)
+                        .name("Product " + i)
+                        .description("Descripción del producto " + i)
+                        .price(BigDecimal.valueOf(1000 + i, 2))
+                        .category("Category" + i % 20)
+                        .sku("SKU-" + i)
+                        .status("ACTIVE")
+                        .stock(ProductResponse.StockInfo.builder()
+                                .quantity(100 + i % 50)
+                                .reservedQuantity(i % 10)
+                                .availableQuantity(100 + i % 50 - i % 10)
+                                .build())
+                        .build())
+                .toList();
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        for (String dataset : List.of("orders", "products")) {
+            Object response = ApiResponse.ok("retrieved", "orders".equals(dataset) ? orders() : products());
+            for (String name : List.of("json", "cbor", "smile")) {
+                System.out.printf("%-8s %-6s %,10d bytes%n", dataset, name,
+                        mapper(name).writeValueAsBytes(response).length);
+            }
+        }
+        new Runner(new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.emsx.common;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class BloomFilterTests {
+
+    private static final int PROBES = 200_000;
+
+    @ParameterizedTest
+    @CsvSource({"100000, 0.01", "10000, 0.001", "1000, 0.05"})
+    void randomKeysAtCapacity(int capacity, double fpp) {
+        Random random = new Random(42);
+        BloomFilter filter = new BloomFilter(capacity, fpp);
+        String[] keys = new String[capacity];
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+            filter.put(keys[i]);
+        }
+        assertNoFalseNegatives(filter, keys);
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain(new UUID(random.nextLong(), random.nextLong()).toString())) {
+                falsePositives++;
+            }
+        }
+        assertRateNear(fpp, falsePositives);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"100000, 0.01", "10000, 0.001"})
+    void sequentialKeysAtCapacity(int capacity, double fpp) {
+        // Claves casi iguales (jti-0, jti-1, ...): el hash no debe agruparlas
+        BloomFilter filter = new BloomFilter(capacity, fpp);
+        String[] keys = new String[capacity];
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = "jti-" + i;
+            filter.put(keys[i]);
+        }
+        assertNoFalseNegatives(filter, keys);
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("jti-" + (capacity + i))) {
+                falsePositives++;
+            }
+        }
+        assertRateNear(fpp, falsePositives);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0.01", "10, 0", "10, 1"})
+    void invalidArgumentsAreRejected(long capacity, double fpp) {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(capacity, fpp));
+    }
+
+    private static void assertNoFalseNegatives(BloomFilter filter, String[] keys) {
+        for (String key : keys) {
+            if (!filter.mightContain(key)) {
+                fail("Falso negativo: " + key);
+            }
+        }
+    }
+
+    // Tolerancia amplia (la tasa teórica con bits redondeados a palabras queda algo por debajo de fpp)
+    private static void assertRateNear(double fpp, int falsePositives) {
+        double rate = (double) falsePositives / PROBES;
+        assertTrue(rate <= fpp * 1.5, "Tasa de falsos positivos " + rate + " para fpp " + fpp);
+        assertTrue(rate >= fpp / 3, "Tasa de falsos positivos " + rate + " sospechosamente baja para fpp " + fpp);
+    }
+}
@@ -0,0 +1,69 @@
+package com.app.emsx.replica;
+
+import com.app.emsx.entities.Stock;
+import com.app.emsx.repositories.StockRepository;
+import com.app.emsx.services.CacheService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * El propio primario hace de réplica: basta para comprobar que lo leído por la ruta
+ * de réplicas no vuelve a la caché L2 después de un evict
+ */
+@SpringBootTest(properties = "emsx.replicas.urls=${spring.datasource.url}")
+class ReplicaCacheTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void replicaReadAfterEvictDoesNotRepopulateTheCache() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM stocks ORDER BY id LIMIT 1", Long.class);
+        assumeTrue(!ids.isEmpty(), "Se necesita al menos un stock");
+        Long stockId = ids.get(0);
+
+        cacheService.evictStocks(List.of(stockId));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            assertTrue(stockRepository.findById(stockId).isPresent());
+            assertEquals(CacheMode.GET, entityManager.unwrap(Session.class).getCacheMode());
+        });
+        assertFalse(entityManagerFactory.getCache().contains(Stock.class, stockId));
+
+        // Una lectura del primario sí la cachea
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertTrue(stockRepository.findById(stockId).isPresent()));
+        assertTrue(entityManagerFactory.getCache().contains(Stock.class, stockId));
+    }
+}
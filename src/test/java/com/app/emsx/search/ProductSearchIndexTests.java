@@ -0,0 +1,73 @@
+package com.app.emsx.search;
+
+import com.app.emsx.dtos.product.ProductSearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTests {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null);
+        index.index(1L, "Mouse inalámbrico", "Mouse óptico", "Periféricos", "MOU-1", BigDecimal.TEN);
+        index.index(2L, "Teclado mecánico", "Switches rojos", "Periféricos", "TEC-1", BigDecimal.ONE);
+    }
+
+    @Test
+    void adjacentTranspositionCountsAsOneEditOnShortTerms() {
+        // "mosue" está a 2 ediciones de Levenshtein y a 1 con transposición
+        assertEquals(List.of(1L), ids(index.search("mosue", 10)));
+        assertEquals(List.of(1L), ids(index.search("mosue inalambrico", 10)));
+    }
+
+    @Test
+    void twoTranspositionsFitTheTwoEditBudgetOfLongTerms() {
+        // Levenshtein 4, dos transposiciones
+        assertEquals(List.of(2L), ids(index.search("mceanioc", 10)));
+        assertEquals(List.of(2L), ids(index.search("mceanioc tecl", 10)));
+    }
+
+    @Test
+    void twoEditsOnShortTermsDoNotMatch() {
+        assertTrue(index.search("msoeu", 10).isEmpty());
+    }
+
+    @Test
+    void singleEditOnTheFirstLetterMatches() {
+        assertEquals(List.of(1L), ids(index.search("xouse", 10)));     // inicial cambiada
+        assertEquals(List.of(1L), ids(index.search("omuse", 10)));     // inicial transpuesta
+        assertEquals(List.of(1L), ids(index.search("ouse", 10)));      // inicial faltante
+        assertEquals(List.of(2L), ids(index.search("eteclado", 10)));  // inicial sobrante
+        assertEquals(List.of(2L), ids(index.search("xeclado mecanico", 10)));
+    }
+
+    @Test
+    void twoEditsOnTheFirstTwoLettersAreNotCandidates() {
+        // Restricción documentada: los candidatos fuzzy comparten la primera o la segunda letra
+        assertTrue(index.search("xyclado", 10).isEmpty());
+    }
+
+    @Test
+    void reindexReplacesTheDocumentTerms() {
+        index.index(1L, "Parlante portátil", null, "Audio", "PAR-1", BigDecimal.TEN);
+        assertTrue(index.search("mouse", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("parlante", 10)));
+        assertEquals("Parlante portátil", index.search("parlante", 10).get(0).getName());
+
+        index.remove(1L);
+        assertTrue(index.search("parlante", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    private static List<Long> ids(List<ProductSearchResponse> results) {
+        return results.stream().map(ProductSearchResponse::getId).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.emsx.sql;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * SqlBudget
+ * -----------------------------------------------------
+ * ✔ Presupuesto de SQL para un test: mide todo lo que corra en el hilo
+ *   mientras esté abierto (MockMvc incluido: SqlStatsFilter usa este recorder,
+ *   y las listas en streaming lo llevan a su hilo)
+ * ✔ assertStatementsAtMost: falla si se superan las sentencias declaradas
+ * ✔ assertNoRepeatedShape: falla si una misma forma corre times veces (N+1)
+ *
+ *   try (SqlBudget budget = SqlBudget.start()) {
+ *       mockMvc.perform(get("/api/orders/{id}", id)).andExpect(status().isOk());
+ *       budget.assertStatementsAtMost(3).assertNoRepeatedShape(2);
+ *   }
+ */
+public final class SqlBudget implements AutoCloseable {
+
+    private final SqlRecorder recorder = new SqlRecorder();
+    private final SqlRecorder previous;
+
+    private SqlBudget() {
+        this.previous = SqlRecorder.bind(recorder);
+    }
+
+    public static SqlBudget start() {
+        return new SqlBudget();
+    }
+
+    public SqlStatistics statistics() {
+        return recorder.statistics();
+    }
+
+    public SqlBudget assertStatementsAtMost(long max) {
+        SqlStatistics statistics = statistics();
+        if (statistics.statements() > max) {
+            throw new AssertionError("Presupuesto de SQL superado: " + statistics.statements()
+                    + " sentencias (máximo " + max + ")" + describe(statistics.shapes()));
+        }
+        return this;
+    }
+
+    public SqlBudget assertNoRepeatedShape(int times) {
+        Map<String, Long> repeated = statistics().repeated(times);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Sentencias repetidas " + times + " veces o más (posible N+1)"
+                    + describe(repeated));
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        SqlRecorder.bind(previous);
+    }
+
+    private static String describe(Map<String, Long> shapes) {
+        return shapes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(entry -> "\n  " + entry.getValue() + " × " + entry.getKey())
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.emsx.sql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SqlBudgetTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsStatementsAndRowsWithinBudget() {
+        try (SqlBudget budget = SqlBudget.start()) {
+            jdbcTemplate.queryForList("SELECT g FROM generate_series(1, 3) g", Integer.class);
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+            budget.assertStatementsAtMost(2).assertNoRepeatedShape(2);
+            assertEquals(2, budget.statistics().statements());
+            assertEquals(4, budget.statistics().rows());
+        }
+    }
+
+    @Test
+    void failsWhenStatementsExceedBudget() {
+        try (SqlBudget budget = SqlBudget.start()) {
+            for (int i = 0; i < 3; i++) {
+                jdbcTemplate.queryForObject("SELECT " + i, Integer.class);
+            }
+
+            assertThrows(AssertionError.class, () -> budget.assertStatementsAtMost(2));
+        }
+    }
+
+    @Test
+    void detectsTheSameShapeRepeated() {
+        try (SqlBudget budget = SqlBudget.start()) {
+            // Misma forma: solo cambian el literal y el largo de la lista IN
+            for (int i = 1; i <= 5; i++) {
+                jdbcTemplate.queryForList("SELECT g FROM generate_series(1, " + i + ") g WHERE g IN ("
+                        + String.join(", ", List.of("?", "?", "?").subList(0, 1 + i % 3)) + ")",
+                        Integer.class, List.of(1, 2, 3).subList(0, 1 + i % 3).toArray());
+            }
+
+            AssertionError error = assertThrows(AssertionError.class, () -> budget.assertNoRepeatedShape(5));
+            assertTrue(error.getMessage().contains("5 × SELECT g FROM generate_series(?, ?) g WHERE g in (?)"),
+                    error.getMessage());
+        }
+    }
+
+    @Test
+    void ignoresStatementsOutsideTheBudget() {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        try (SqlBudget budget = SqlBudget.start()) {
+            assertEquals(0, budget.statistics().statements());
+        }
+    }
+}
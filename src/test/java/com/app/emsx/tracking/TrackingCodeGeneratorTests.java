@@ -0,0 +1,107 @@
+package com.app.emsx.tracking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackingCodeGeneratorTests {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    @Test
+    void generatedCodesRoundTripAndCarryTheNode() {
+        TrackingCodeGenerator generator = new TrackingCodeGenerator(37);
+        String code = generator.next();
+
+        assertTrue(code.startsWith(TrackingCodeGenerator.PREFIX));
+        assertEquals(18, code.length());
+        assertTrue(TrackingCodeGenerator.isWellFormed(code));
+
+        long id = TrackingCodeGenerator.decode(code);
+        assertEquals(code, TrackingCodeGenerator.encode(id));
+        assertEquals(37, (id >>> 12) & 1023);
+    }
+
+    @Test
+    void checkDigitMatchesLuhnMod32() {
+        // Cuerpo todo ceros: suma 0 → control 0; un 1 en la última posición (factor 2) → 32 - 2 = 30 ('Y')
+        assertEquals("TRK-00000000000000", TrackingCodeGenerator.encode(0));
+        assertEquals("TRK-0000000000001Y", TrackingCodeGenerator.encode(1));
+        assertTrue(TrackingCodeGenerator.isWellFormed("TRK-0000000000001Y"));
+        assertFalse(TrackingCodeGenerator.isWellFormed("TRK-0000000000001Z"));
+    }
+
+    @Test
+    void everySingleCharacterSubstitutionIsRejected() {
+        String code = new TrackingCodeGenerator(5).next();
+        for (int i = TrackingCodeGenerator.PREFIX.length(); i < code.length(); i++) {
+            for (char c : ALPHABET.toCharArray()) {
+                if (c == code.charAt(i)) {
+                    continue;
+                }
+                String typo = code.substring(0, i) + c + code.substring(i + 1);
+                assertFalse(TrackingCodeGenerator.isWellFormed(typo), typo);
+            }
+        }
+    }
+
+    @Test
+    void malformedAndLegacyCodes() {
+        assertTrue(TrackingCodeGenerator.isWellFormed("TRK-0A1B2C3D"));
+        assertFalse(TrackingCodeGenerator.isWellFormed("TRK-0A1B2C3G"));
+        assertFalse(TrackingCodeGenerator.isWellFormed(null));
+        assertFalse(TrackingCodeGenerator.isWellFormed("trk-0000000000001Y"));
+        assertFalse(TrackingCodeGenerator.isWellFormed("TRK-000000000001Y"));
+        assertFalse(TrackingCodeGenerator.isWellFormed("TRK-000000000000IY"));
+    }
+
+    @Test
+    void burstsStayUniqueAndOrderedPastTheSequenceLimit() {
+        TrackingCodeGenerator generator = new TrackingCodeGenerator(1);
+        int count = 50_000;                                     // > 4096 por milisegundo
+        Set<Long> millis = new HashSet<>();
+        String previous = generator.next();
+        for (int i = 1; i < count; i++) {
+            String code = generator.next();
+            assertTrue(code.compareTo(previous) > 0, previous + " >= " + code);
+            millis.add(TrackingCodeGenerator.decode(code) >>> 22);
+            previous = code;
+        }
+        // Orden estricto sobre el texto ⇒ sin repetidos; con 50k códigos hubo más de un milisegundo
+        assertTrue(millis.size() > 1);
+    }
+
+    @Test
+    void concurrentBurstsNeverRepeat() throws InterruptedException {
+        TrackingCodeGenerator generator = new TrackingCodeGenerator(2);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    codes.add(generator.next());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * 20_000, codes.size());
+    }
+
+    @Test
+    void nodeOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TrackingCodeGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new TrackingCodeGenerator(-2));
+        // -1 = sin configurar: nodo 0 con WARN
+        assertTrue(TrackingCodeGenerator.isWellFormed(new TrackingCodeGenerator(-1).next()));
+    }
+}